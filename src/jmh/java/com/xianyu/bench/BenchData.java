@@ -0,0 +1,158 @@
+package com.xianyu.bench;
+
+import com.xianyu.dao.FavoriteMapper;
+import com.xianyu.dao.ItemMapper;
+import com.xianyu.dao.OrderMapper;
+import com.xianyu.dao.UserMapper;
+import com.xianyu.entity.Favorite;
+import com.xianyu.entity.Item;
+import com.xianyu.entity.Order;
+import com.xianyu.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+/**
+ * 基准数据集：rows 件商品、rows 条订单（全部属于同一个买家）、rows 条收藏（全部属于同一个用户），
+ * 用户数为 rows / 10。数据按 id 倒序存放，与 Mapper 的 ORDER BY id DESC 一致。
+ */
+final class BenchData {
+
+    static final long BUYER_ID = 1L;
+
+    private static final String[] CATEGORIES = {"书籍", "数码", "生活用品", "服饰", "运动"};
+    private static final String[] LOCATIONS = {"东区宿舍", "西区宿舍", "图书馆", "一食堂"};
+
+    final Item[] items;          // 下标 i 对应 id = rows - i
+    final User[] users;          // 下标 i 对应 id = i + 1
+    final List<Order> orders;
+    final List<Favorite> favorites;
+
+    BenchData(int rows) {
+        SplittableRandom random = new SplittableRandom(42);
+        int userCount = Math.max(rows / 10, 10);
+
+        users = new User[userCount];
+        for (int i = 0; i < userCount; i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setUsername("user" + (i + 1));
+            user.setStudentId("2024" + (i + 1));
+            user.setStatus(1);
+            user.setRole(0);
+            users[i] = user;
+        }
+
+        items = new Item[rows];
+        for (int i = 0; i < rows; i++) {
+            long id = rows - i;
+            Item item = new Item();
+            item.setId(id);
+            item.setName("二手商品" + id);
+            item.setDescription("九成新，自提优先，商品编号 " + id);
+            item.setPrice(BigDecimal.valueOf(random.nextInt(1, 5000)));
+            item.setOriginalPrice(item.getPrice().multiply(BigDecimal.valueOf(2)));
+            item.setCategory(CATEGORIES[(int) (id % CATEGORIES.length)]);
+            item.setConditions(random.nextInt(1, 4));
+            item.setStatus(1);
+            item.setSellerId((long) random.nextInt(2, userCount + 1));
+            item.setContactWay("wx_" + id);
+            item.setLocation(LOCATIONS[(int) (id % LOCATIONS.length)]);
+            item.setImageUrls("uploads/" + id + ".jpg");
+            items[i] = item;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        orders = new ArrayList<>(rows);
+        favorites = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Item item = items[i];
+            Order order = new Order();
+            order.setId(item.getId());
+            order.setItemId(item.getId());
+            order.setBuyerId(BUYER_ID);
+            order.setSellerId(item.getSellerId());
+            order.setItemPrice(item.getPrice());
+            order.setStatus(0);
+            order.setCreateTime(now);
+            orders.add(order);
+
+            Favorite favorite = new Favorite();
+            favorite.setId(item.getId());
+            favorite.setUserId(BUYER_ID);
+            favorite.setItemId(item.getId());
+            favorite.setItem(item);
+            favorite.setCreateTime(now);
+            favorites.add(favorite);
+        }
+    }
+
+    Optional<Item> item(Long id) {
+        int index = items.length - id.intValue();
+        return index >= 0 && index < items.length ? Optional.of(items[index]) : Optional.empty();
+    }
+
+    Optional<User> user(Long id) {
+        int index = id.intValue() - 1;
+        return index >= 0 && index < users.length ? Optional.of(users[index]) : Optional.empty();
+    }
+
+    ItemMapper itemMapper() {
+        return StubMapper.of(ItemMapper.class)
+                .on("findById", args -> item((Long) args[0]))
+                .on("findByIds", args -> {
+                    List<Item> found = new ArrayList<>();
+                    for (Object id : (Collection<?>) args[0]) {
+                        item((Long) id).ifPresent(found::add);
+                    }
+                    return found;
+                })
+                .on("findPage", args -> {
+                    // 所有商品都在售，过滤条件可以忽略
+                    Long cursor = (Long) args[3];
+                    int limit = (Integer) args[4];
+                    int from = cursor == null ? 0 : Math.max(items.length - cursor.intValue() + 1, 0);
+                    return Arrays.asList(items).subList(Math.min(from, items.length), Math.min(from + limit, items.length));
+                })
+                .on("findByStatus", args -> Arrays.asList(items))
+                .build();
+    }
+
+    UserMapper userMapper() {
+        return StubMapper.of(UserMapper.class)
+                .on("findById", args -> user((Long) args[0]))
+                .on("findByIds", args -> {
+                    List<User> found = new ArrayList<>();
+                    for (Object id : (Collection<?>) args[0]) {
+                        user((Long) id).ifPresent(found::add);
+                    }
+                    return found;
+                })
+                .build();
+    }
+
+    OrderMapper orderMapper() {
+        return StubMapper.of(OrderMapper.class)
+                .on("findPageByBuyer", args -> {
+                    Long cursor = (Long) args[2];
+                    int limit = (int) args[3];
+                    return orders.stream()
+                            .filter(order -> cursor == null || order.getId() < cursor)
+                            .limit(limit)
+                            .toList();
+                })
+                .build();
+    }
+
+    FavoriteMapper favoriteMapper() {
+        return StubMapper.of(FavoriteMapper.class)
+                .on("listByUser", args -> favorites)
+                .build();
+    }
+}
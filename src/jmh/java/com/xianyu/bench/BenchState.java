@@ -0,0 +1,89 @@
+package com.xianyu.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.xianyu.controller.ItemController;
+import com.xianyu.controller.OrderController;
+import com.xianyu.dao.ItemPopularityMapper;
+import com.xianyu.dao.OrderEventMapper;
+import com.xianyu.entity.Item;
+import com.xianyu.security.MyUserDetails;
+import com.xianyu.service.impl.FavoriteServiceImpl;
+import com.xianyu.service.impl.FavoriteWriteBuffer;
+import com.xianyu.service.impl.ItemFacetIndex;
+import com.xianyu.service.impl.ItemSearchIndex;
+import com.xianyu.service.impl.ItemServiceImpl;
+import com.xianyu.service.impl.ListingVersions;
+import com.xianyu.service.impl.OnSaleFeed;
+import com.xianyu.service.impl.OrderServiceImpl;
+import com.xianyu.service.impl.PopularityTracker;
+import com.xianyu.util.LocalCache;
+import com.xianyu.vo.ItemVO;
+import com.xianyu.vo.UserVO;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各基准共用的数据集和被测对象，数据规模由 rows 参数控制，
+ * 可用 -p rows=100,10000 覆盖默认值。
+ */
+@State(Scope.Benchmark)
+public class BenchState {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    public int rows;
+
+    BenchData data;
+    List<Item> items;
+    List<ItemVO> itemVOs;
+
+    ItemServiceImpl itemService;
+    OrderServiceImpl orderService;
+    FavoriteServiceImpl favoriteService;
+    ItemController itemController;
+    OrderController orderController;
+    MyUserDetails buyer;
+    ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new BenchData(rows);
+        items = Arrays.asList(data.items);
+        itemVOs = items.stream().map(ItemServiceImpl::getItemVO).toList();
+
+        var itemMapper = data.itemMapper();
+        itemService = new ItemServiceImpl(itemMapper,
+                new LocalCache<>("item", 10_000, 5, TimeUnit.MINUTES),
+                event -> { },
+                new ItemSearchIndex(),
+                new ItemFacetIndex());
+        orderService = new OrderServiceImpl(data.orderMapper(), StubMapper.of(OrderEventMapper.class).build(),
+                itemMapper, data.userMapper(),
+                itemService, TransactionOperations.withoutTransaction(), event -> { });
+        var listingVersions = new ListingVersions();
+        var favoriteMapper = data.favoriteMapper();
+        favoriteService = new FavoriteServiceImpl(favoriteMapper, new FavoriteWriteBuffer(favoriteMapper, 10_000, 1_000),
+                listingVersions, event -> { });
+        itemController = new ItemController(itemService, listingVersions,
+                new PopularityTracker(StubMapper.of(ItemPopularityMapper.class).build(), new OnSaleFeed(itemMapper, List.of()), 60, 100));
+        orderController = new OrderController(orderService);
+
+        UserVO user = new UserVO();
+        user.setId(BenchData.BUYER_ID);
+        user.setUsername("user1");
+        user.setStatus(1);
+        user.setRole(0);
+        buyer = new MyUserDetails(user);
+
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,33 @@
+package com.xianyu.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 完整的控制器调用（不含 HTTP 层），Mapper 为内存实现。
+ * 商品列表和买家订单列表都是键集分页，只取一页，吞吐量应与 rows 无关。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ControllerBenchmark {
+
+    @Benchmark
+    public Object itemListFirstPage(BenchState state) {
+        return state.itemController.list(null, null, null, null);
+    }
+
+    @Benchmark
+    public Object orderListByBuyer(BenchState state) {
+        return state.orderController.listByBuyer(null, null, null, state.buyer);
+    }
+}
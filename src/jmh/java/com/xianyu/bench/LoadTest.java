@@ -0,0 +1,95 @@
+package com.xianyu.bench;
+
+import com.xianyu.metrics.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对运行中的应用做闭环压测：concurrency 个客户端循环请求商品列表和买家订单列表，
+ * 输出吞吐量和延迟分位。用同一组参数分别压 platform 和 virtual 两种模式的实例即可对比：
+ *
+ * <pre>
+ *   java -jar xianyu.jar --spring.profiles.active=loadtest
+ *   java -jar xianyu.jar --spring.profiles.active=loadtest,virtual
+ *   java -cp benchmarks/target/benchmarks.jar com.xianyu.bench.LoadTest http://localhost:8080 "JSESSIONID=..." 200 60
+ * </pre>
+ *
+ * 两个接口都需要登录，Cookie 取自浏览器中已登录的会话。
+ */
+public final class LoadTest {
+
+    private static final String[] PATHS = {"/api/items?size=20", "/api/orders/buyer"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("用法: LoadTest <baseUrl> <cookie> [concurrency=200] [durationSeconds=60]");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        String cookie = args[1];
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int durationSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : PATHS) {
+            requests.add(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Cookie", cookie)
+                    .header("Accept", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build());
+        }
+
+        Histogram[] latency = new Histogram[PATHS.length];
+        LongAdder[] errors = new LongAdder[PATHS.length];
+        for (int i = 0; i < PATHS.length; i++) {
+            latency[i] = new Histogram();
+            errors[i] = new LongAdder();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                int offset = c;
+                clients.submit(() -> {
+                    for (int n = offset; System.nanoTime() < deadline; n++) {
+                        int target = n % PATHS.length;
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(requests.get(target), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors[target].increment();
+                            }
+                        } catch (Exception e) {
+                            errors[target].increment();
+                        }
+                        latency[target].recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    }
+                });
+            }
+        }
+
+        System.out.printf("concurrency=%d duration=%ds%n", concurrency, durationSeconds);
+        for (int i = 0; i < PATHS.length; i++) {
+            Histogram h = latency[i];
+            System.out.printf("%-22s %8.1f req/s  p50=%6.2fms  p99=%7.2fms  max=%7.2fms  errors=%d%n",
+                    PATHS[i], (double) h.getCount() / durationSeconds,
+                    h.valueAtPercentile(0.5) / 1000.0, h.valueAtPercentile(0.99) / 1000.0,
+                    h.getMax() / 1000.0, errors[i].sum());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.xianyu.bench;
+
+import com.xianyu.entity.Item;
+import com.xianyu.service.impl.ItemServiceImpl;
+import com.xianyu.util.PageCursor;
+import com.xianyu.util.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务层 VO 映射与 JSON 序列化。每次调用处理全部 rows 行，
+ * 配合 -prof gc 查看分配速率随数据量的变化。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MappingBenchmark {
+
+    @Benchmark
+    public void itemVO(BenchState state, Blackhole bh) {
+        for (Item item : state.items) {
+            bh.consume(ItemServiceImpl.getItemVO(item));
+        }
+    }
+
+    @Benchmark
+    public Object orderToVO(BenchState state) {
+        return state.orderService.listByBuyer(BenchData.BUYER_ID, null, null, PageCursor.MAX_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Object favoriteListByUser(BenchState state) {
+        return state.favoriteService.listByUser(BenchData.BUYER_ID);
+    }
+
+    @Benchmark
+    public byte[] resultSerialization(BenchState state) throws Exception {
+        return state.objectMapper.writeValueAsBytes(Result.success(state.itemVOs));
+    }
+}
@@ -0,0 +1,47 @@
+package com.xianyu.bench;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 基准测试用的内存版 Mapper：只实现被测路径用到的方法，其余方法调用时直接报错，
+ * 这样 Mapper 接口新增方法时基准代码不需要跟着改。
+ */
+final class StubMapper<T> {
+
+    private final Class<T> type;
+    private final Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+
+    private StubMapper(Class<T> type) {
+        this.type = type;
+    }
+
+    static <T> StubMapper<T> of(Class<T> type) {
+        return new StubMapper<>(type);
+    }
+
+    StubMapper<T> on(String method, Function<Object[], Object> handler) {
+        handlers.put(method, handler);
+        return this;
+    }
+
+    T build() {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(p);
+                    case "equals" -> p == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            Function<Object[], Object> handler = handlers.get(method.getName());
+            if (handler == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return handler.apply(args);
+        });
+        return type.cast(proxy);
+    }
+}
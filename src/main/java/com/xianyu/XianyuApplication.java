@@ -3,9 +3,11 @@ package com.xianyu;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.xianyu.dao")
+@EnableScheduling
 public class XianyuApplication {
 
     public static void main(String[] args) {
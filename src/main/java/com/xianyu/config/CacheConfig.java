@@ -0,0 +1,34 @@
+package com.xianyu.config;
+
+import com.xianyu.entity.Item;
+import com.xianyu.util.LocalCache;
+import com.xianyu.vo.UserVO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class CacheConfig {
+
+    // 商品详情缓存，按商品ID
+    @Bean
+    public LocalCache<Long, Item> itemCache(@Value("${xianyu.cache.item.max-size:10000}") int maxSize,
+                                           @Value("${xianyu.cache.item.ttl-seconds:300}") long ttlSeconds) {
+        return new LocalCache<>("item", maxSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    // 登录主体缓存：按用户名供认证使用，按ID供用户信息查询使用
+    @Bean
+    public LocalCache<String, UserVO> userByUsernameCache(@Value("${xianyu.cache.user.max-size:10000}") int maxSize,
+                                                          @Value("${xianyu.cache.user.ttl-seconds:600}") long ttlSeconds) {
+        return new LocalCache<>("user-by-username", maxSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    @Bean
+    public LocalCache<Long, UserVO> userByIdCache(@Value("${xianyu.cache.user.max-size:10000}") int maxSize,
+                                                  @Value("${xianyu.cache.user.ttl-seconds:600}") long ttlSeconds) {
+        return new LocalCache<>("user-by-id", maxSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+}
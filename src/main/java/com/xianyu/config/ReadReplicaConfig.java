@@ -0,0 +1,95 @@
+package com.xianyu.config;
+
+import com.xianyu.datasource.PrimaryPinning;
+import com.xianyu.datasource.ReadWriteRoutingDataSource;
+import com.xianyu.datasource.Replica;
+import com.xianyu.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 开启只读副本（xianyu.datasource.replica.enabled=true）时替换默认数据源：
+ * 主库仍按 spring.datasource.* 配置，副本共用主库的账号和驱动，各自一个小连接池。
+ */
+@Configuration
+@ConditionalOnProperty(name = "xianyu.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public PrimaryPinning primaryPinning(@Value("${xianyu.datasource.replica.pin-ms:5000}") long pinMillis,
+                                         @Value("${xianyu.datasource.replica.max-pinned-users:50000}") int maxUsers) {
+        return new PrimaryPinning(maxUsers, pinMillis);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties properties,
+                                                                 HikariDataSource primaryDataSource,
+                                                                 PrimaryPinning primaryPinning,
+                                                                 @Value("${xianyu.datasource.replica.urls}") List<String> urls,
+                                                                 @Value("${xianyu.datasource.replica.pool-size:10}") int poolSize,
+                                                                 @Value("${xianyu.datasource.replica.max-lag-ms:2000}") long maxLagMillis,
+                                                                 @Value("${xianyu.datasource.replica.check-interval-ms:1000}") long checkIntervalMillis,
+                                                                 @Value("${xianyu.datasource.replica.stale-after-checks:3}") int staleAfterChecks) {
+        List<Replica> replicas = replicas(properties, primaryDataSource, urls, poolSize,
+                checkIntervalMillis * staleAfterChecks);
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, primaryPinning, maxLagMillis);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               ReadWriteRoutingDataSource readWriteRoutingDataSource,
+                                               @Value("${xianyu.datasource.replica.max-lag-ms:2000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(primaryDataSource, readWriteRoutingDataSource.getReplicas(), maxLagMillis);
+    }
+
+    // MyBatis 和事务管理器使用的数据源：延迟到第一条语句执行时才取真实连接，此时事务的只读标记已经确定
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    // 每个副本一个连接池，连接设为只读，超时沿用主库的配置
+    private static List<Replica> replicas(DataSourceProperties properties, HikariDataSource primaryDataSource,
+                                          List<String> urls, int poolSize, long staleAfterMillis) {
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + replicas.size();
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .build();
+            dataSource.setPoolName("xianyu-" + name);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setMinimumIdle(Math.min(poolSize, 2));
+            dataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            dataSource.setValidationTimeout(primaryDataSource.getValidationTimeout());
+            dataSource.setReadOnly(true);
+            replicas.add(new Replica(name, dataSource, staleAfterMillis));
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("已开启只读副本，但 xianyu.datasource.replica.urls 为空");
+        }
+        return replicas;
+    }
+}
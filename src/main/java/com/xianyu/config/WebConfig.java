@@ -0,0 +1,21 @@
+package com.xianyu.config;
+
+import com.xianyu.metrics.EndpointMetricsInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final EndpointMetricsInterceptor endpointMetricsInterceptor;
+
+    public WebConfig(EndpointMetricsInterceptor endpointMetricsInterceptor) {
+        this.endpointMetricsInterceptor = endpointMetricsInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(endpointMetricsInterceptor);
+    }
+}
@@ -1,33 +1,64 @@
 package com.xianyu.controller;
 
-import com.xianyu.dao.ItemMapper;
 import com.xianyu.dao.UserMapper;
-import com.xianyu.entity.Item;
+import com.xianyu.datasource.ReadWriteRoutingDataSource;
+import com.xianyu.dto.BulkReviewDTO;
 import com.xianyu.entity.User;
+import com.xianyu.metrics.MetricsRegistry;
 import com.xianyu.security.MyUserDetails;
+import com.xianyu.service.ExportService;
+import com.xianyu.service.ItemService;
+import com.xianyu.service.UserService;
+import com.xianyu.service.impl.LiveUpdateHub;
+import com.xianyu.service.impl.OnSaleFeed;
+import com.xianyu.util.ExportFormat;
+import com.xianyu.util.LocalCache;
 import com.xianyu.util.Result;
 import com.xianyu.vo.ItemVO;
+import com.xianyu.vo.ReviewResultVO;
 import com.xianyu.vo.UserVO;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import static com.xianyu.service.impl.ItemServiceImpl.getItemVO;
-
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
 
     private final UserMapper userMapper;
-    private final ItemMapper itemMapper;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final List<LocalCache<?, ?>> caches;
+    private final OnSaleFeed onSaleFeed;
+    private final MetricsRegistry metricsRegistry;
+    private final LiveUpdateHub liveUpdateHub;
+    private final ExportService exportService;
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
 
     @Autowired
-    public AdminController(UserMapper userMapper, ItemMapper itemMapper) {
+    public AdminController(UserMapper userMapper, UserService userService, ItemService itemService,
+                           List<LocalCache<?, ?>> caches, OnSaleFeed onSaleFeed, MetricsRegistry metricsRegistry,
+                           LiveUpdateHub liveUpdateHub, ExportService exportService,
+                           ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
         this.userMapper = userMapper;
-        this.itemMapper = itemMapper;
+        this.userService = userService;
+        this.itemService = itemService;
+        this.caches = caches;
+        this.onSaleFeed = onSaleFeed;
+        this.metricsRegistry = metricsRegistry;
+        this.liveUpdateHub = liveUpdateHub;
+        this.exportService = exportService;
+        this.routingDataSource = routingDataSource;
     }
 
     // 检查是否为管理员
@@ -61,8 +92,7 @@ public class AdminController {
         if (status == null || (status != 0 && status != 1)) {
             return Result.failure("状态无效：必须为 0 或 1");
         }
-        int updated = userMapper.updateStatus(id, status);
-        if (updated > 0) {
+        if (userService.updateStatus(id, status)) {
             return Result.success("用户状态更新成功");
         }
         return Result.failure("更新失败：用户未找到");
@@ -70,13 +100,23 @@ public class AdminController {
 
     // 获取待审核商品列表
     @GetMapping("/items/pending")
-    public Result<List<ItemVO>> getPendingItems(@AuthenticationPrincipal MyUserDetails userDetails) {
+    public Result<List<ItemVO>> getPendingItems(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "sellerId", required = false) Long sellerId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @AuthenticationPrincipal MyUserDetails userDetails) {
         if (!isAdmin(userDetails)) {
             return Result.failure("未授权：仅限管理员");
         }
-        List<Item> items = itemMapper.findByStatus(0); // 0 = pending
-        List<ItemVO> itemVOs = items.stream().map(this::toItemVO).toList();
-        return Result.success(itemVOs);
+        if (category != null && category.isBlank()) {
+            category = null;
+        }
+        try {
+            return Result.page(itemService.listPage(0, category, sellerId, cursor, size)); // 0 = pending
+        } catch (IllegalArgumentException e) {
+            return Result.failure(e.getMessage());
+        }
     }
 
     // 审核通过商品
@@ -87,8 +127,7 @@ public class AdminController {
         if (!isAdmin(userDetails)) {
             return Result.failure("未授权：仅限管理员");
         }
-        int updated = itemMapper.updateStatus(id, 1); // 1 = approved/on sale
-        if (updated > 0) {
+        if (itemService.reviewItem(id, 1)) { // 1 = approved/on sale
             return Result.success("商品审核通过");
         }
         return Result.failure("审核失败：商品未找到");
@@ -102,13 +141,131 @@ public class AdminController {
         if (!isAdmin(userDetails)) {
             return Result.failure("未授权：仅限管理员");
         }
-        int updated = itemMapper.updateStatus(id, 4); // 4 = rejected
-        if (updated > 0) {
+        if (itemService.reviewItem(id, 4)) { // 4 = rejected
             return Result.success("商品已驳回");
         }
         return Result.failure("驳回失败：商品未找到");
     }
 
+    // 批量审核通过
+    @PutMapping("/items/approve")
+    public Result<List<ReviewResultVO>> approveItems(
+            @RequestBody BulkReviewDTO dto,
+            @AuthenticationPrincipal MyUserDetails userDetails) {
+        return reviewItems(dto, 1, userDetails);
+    }
+
+    // 批量驳回
+    @PutMapping("/items/reject")
+    public Result<List<ReviewResultVO>> rejectItems(
+            @RequestBody BulkReviewDTO dto,
+            @AuthenticationPrincipal MyUserDetails userDetails) {
+        return reviewItems(dto, 4, userDetails);
+    }
+
+    private Result<List<ReviewResultVO>> reviewItems(BulkReviewDTO dto, int status, MyUserDetails userDetails) {
+        if (!isAdmin(userDetails)) {
+            return Result.failure("未授权：仅限管理员");
+        }
+        try {
+            return Result.success(itemService.reviewItems(dto == null ? null : dto.getIds(), status));
+        } catch (IllegalArgumentException e) {
+            return Result.failure(e.getMessage());
+        }
+    }
+
+    // 缓存命中率等统计
+    @GetMapping("/cache/stats")
+    public Result<List<Map<String, Object>>> cacheStats(@AuthenticationPrincipal MyUserDetails userDetails) {
+        if (!isAdmin(userDetails)) {
+            return Result.failure("未授权：仅限管理员");
+        }
+        return Result.success(caches.stream().map(LocalCache::stats).toList());
+    }
+
+    // 首页在售快照的版本与构建时间
+    @GetMapping("/feed/stats")
+    public Result<Map<String, Object>> feedStats(@AuthenticationPrincipal MyUserDetails userDetails) {
+        if (!isAdmin(userDetails)) {
+            return Result.failure("未授权：仅限管理员");
+        }
+        OnSaleFeed.Snapshot snapshot = onSaleFeed.current();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", snapshot.version());
+        stats.put("builtAt", snapshot.builtAt());
+        stats.put("size", snapshot.items().size());
+        return Result.success(stats);
+    }
+
+    // 实时推送的订阅数与因消费过慢被断开的次数
+    @GetMapping("/live/stats")
+    public Result<Map<String, Object>> liveStats(@AuthenticationPrincipal MyUserDetails userDetails) {
+        if (!isAdmin(userDetails)) {
+            return Result.failure("未授权：仅限管理员");
+        }
+        return Result.success(liveUpdateHub.stats());
+    }
+
+    // 读写分离的路由计数和各副本的延迟；未开启只读副本时返回 enabled=false
+    @GetMapping("/datasource/stats")
+    public Result<Map<String, Object>> dataSourceStats(@AuthenticationPrincipal MyUserDetails userDetails) {
+        if (!isAdmin(userDetails)) {
+            return Result.failure("未授权：仅限管理员");
+        }
+        ReadWriteRoutingDataSource routing = routingDataSource.getIfAvailable();
+        if (routing == null) {
+            return Result.success(Map.of("enabled", false));
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", true);
+        stats.putAll(routing.stats());
+        return Result.success(stats);
+    }
+
+    // 接口与 SQL 语句的性能指标（Prometheus 文本格式）
+    @GetMapping(value = "/metrics", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public ResponseEntity<String> metrics(@AuthenticationPrincipal MyUserDetails userDetails) {
+        if (!isAdmin(userDetails)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("未授权：仅限管理员");
+        }
+        return ResponseEntity.ok(metricsRegistry.scrape());
+    }
+
+    // 全量导出用户、商品或订单（users / items / orders），format 为 ndjson（默认）或 csv，边查边写不在内存中攒数据
+    @GetMapping("/export/{dataset}")
+    public ResponseEntity<?> export(
+            @PathVariable("dataset") String dataset,
+            @RequestParam(value = "format", required = false) String format,
+            @AuthenticationPrincipal MyUserDetails userDetails) {
+        if (!isAdmin(userDetails)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Result.failure("未授权：仅限管理员"));
+        }
+        if (!exportService.supports(dataset)) {
+            return ResponseEntity.badRequest().body(Result.failure("不支持的导出数据：" + dataset));
+        }
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Result.failure(e.getMessage()));
+        }
+        if (!exportService.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Result.failure("导出任务过多，请稍后再试"));
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                exportService.export(dataset, exportFormat, out);
+            } finally {
+                exportService.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + dataset + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     // 将User实体转换为UserVO
     private UserVO toUserVO(User user) {
         UserVO vo = new UserVO();
@@ -122,9 +279,4 @@ public class AdminController {
         // 不设置password，避免密码哈希泄露
         return vo;
     }
-
-    // 将Item实体转换为ItemVO
-    private ItemVO toItemVO(Item item) {
-        return getItemVO(item);
-    }
 }
@@ -1,11 +1,15 @@
 package com.xianyu.controller;
 
 import com.xianyu.service.FavoriteService;
+import com.xianyu.service.impl.ListingVersions;
+import com.xianyu.util.ConditionalRequests;
 import com.xianyu.util.Result;
+import com.xianyu.vo.FavoriteItemVO;
 import com.xianyu.vo.FavoriteVO;
 import com.xianyu.security.MyUserDetails;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -14,9 +18,11 @@ import java.util.List;
 public class FavoriteController {
 
     private final FavoriteService favoriteService;
+    private final ListingVersions listingVersions;
 
-    public FavoriteController(FavoriteService favoriteService) {
+    public FavoriteController(FavoriteService favoriteService, ListingVersions listingVersions) {
         this.favoriteService = favoriteService;
+        this.listingVersions = listingVersions;
     }
 
     // 收藏
@@ -27,7 +33,11 @@ public class FavoriteController {
             return Result.failure("未授权");
         }
         Long userId = userDetails.getUserVO().getId();
-        return Result.success(favoriteService.addFavorite(userId, itemId));
+        try {
+            return Result.success(favoriteService.addFavorite(userId, itemId));
+        } catch (IllegalStateException e) {
+            return Result.failure(e.getMessage());
+        }
     }
 
     // 取消收藏
@@ -38,18 +48,32 @@ public class FavoriteController {
             return Result.failure("未授权");
         }
         Long userId = userDetails.getUserVO().getId();
-        boolean removed = favoriteService.removeFavorite(userId, itemId);
-        return removed ? Result.success(null) : Result.failure("收藏未找到");
+        try {
+            boolean removed = favoriteService.removeFavorite(userId, itemId);
+            return removed ? Result.success(null) : Result.failure("收藏未找到");
+        } catch (IllegalStateException e) {
+            return Result.failure(e.getMessage());
+        }
     }
 
     // 获取收藏列表
     @GetMapping
-    public Result<List<FavoriteVO>> list(@AuthenticationPrincipal MyUserDetails userDetails) {
+    public Result<List<FavoriteItemVO>> list(@RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "size", required = false) Integer size,
+                                             @AuthenticationPrincipal MyUserDetails userDetails,
+                                             ServletWebRequest request) {
         if (userDetails == null) {
             return Result.failure("未授权");
         }
         Long userId = userDetails.getUserVO().getId();
-        return Result.success(favoriteService.listByUser(userId));
+        if (ConditionalRequests.notModified(request, listingVersions.favorites(userId), null)) {
+            return null; // 304
+        }
+        try {
+            return Result.page(favoriteService.listPage(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return Result.failure(e.getMessage());
+        }
     }
 
     // 检查是否收藏某商品
@@ -60,7 +84,7 @@ public class FavoriteController {
             return Result.success(false);
         }
         Long userId = userDetails.getUserVO().getId();
-        boolean isFavorited = favoriteService.findByUserAndItem(userId, itemId).isPresent();
+        boolean isFavorited = favoriteService.isFavorited(userId, itemId);
         return Result.success(isFavorited);
     }
 }
\ No newline at end of file
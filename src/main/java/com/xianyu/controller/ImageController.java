@@ -0,0 +1,44 @@
+package com.xianyu.controller;
+
+import com.xianyu.service.impl.ThumbnailService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class ImageController {
+
+    private final ThumbnailService thumbnailService;
+
+    public ImageController(ThumbnailService thumbnailService) {
+        this.thumbnailService = thumbnailService;
+    }
+
+    // 商品缩略图，浏览器长期缓存，过期后凭 ETag 协商
+    @GetMapping("/thumbs/{width}/{name:.+}")
+    public ResponseEntity<Resource> thumbnail(@PathVariable("width") int width,
+                                              @PathVariable("name") String name,
+                                              WebRequest request) {
+        return thumbnailService.get(name, width)
+                .map(thumbnail -> {
+                    CacheControl cacheControl = CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic();
+                    if (request.checkNotModified(thumbnail.etag())) {
+                        return ResponseEntity.status(304).cacheControl(cacheControl).eTag(thumbnail.etag()).<Resource>build();
+                    }
+                    return ResponseEntity.ok()
+                            .cacheControl(cacheControl)
+                            .eTag(thumbnail.etag())
+                            .contentType(MediaType.parseMediaType(thumbnail.contentType()))
+                            .<Resource>body(new FileSystemResource(thumbnail.path()));
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,13 +1,23 @@
 package com.xianyu.controller;
 
+import com.xianyu.dto.ItemBrowseDTO;
 import com.xianyu.dto.ItemDTO;
+import com.xianyu.dto.ItemSearchDTO;
 import com.xianyu.dto.StatusUpdateDTO;
 import com.xianyu.service.ItemService;
+import com.xianyu.service.impl.ListingVersions;
+import com.xianyu.service.impl.PopularityTracker;
+import com.xianyu.util.ConditionalRequests;
+import com.xianyu.util.ResponseCode;
 import com.xianyu.util.Result;
+import com.xianyu.vo.BrowseResultVO;
 import com.xianyu.vo.ItemVO;
+import com.xianyu.vo.SearchResultVO;
 import com.xianyu.security.MyUserDetails;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,9 +27,16 @@ import java.util.Optional;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ListingVersions listingVersions;
+    private final PopularityTracker popularityTracker;
 
-    public ItemController(ItemService itemService) {
+    private static final int MAX_TRENDING = 50;
+
+    public ItemController(ItemService itemService, ListingVersions listingVersions,
+                          PopularityTracker popularityTracker) {
         this.itemService = itemService;
+        this.listingVersions = listingVersions;
+        this.popularityTracker = popularityTracker;
     }
 
     @PostMapping
@@ -42,8 +59,14 @@ public class ItemController {
             return Result.failure("未授权");
         }
         Long ownerId = userDetails.getUserVO().getId();
-        Optional<ItemVO> updated = itemService.update(id, dto, ownerId);
-        return updated.map(Result::success).orElseGet(() -> Result.failure("未找到或无权限"));
+        try {
+            Optional<ItemVO> updated = itemService.update(id, dto, ownerId);
+            return updated.map(Result::success).orElseGet(() -> Result.failure("未找到或无权限"));
+        } catch (OptimisticLockingFailureException e) {
+            return Result.failure(ResponseCode.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return Result.failure(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -57,15 +80,52 @@ public class ItemController {
     }
 
     @GetMapping("/{id}")
-    public Result<ItemVO> get(@PathVariable Long id) {
+    public Result<ItemVO> get(@PathVariable Long id, ServletWebRequest request) {
+        Long lastModified = itemService.lastModified(id).orElse(null);
+        if (lastModified != null) {
+            popularityTracker.recordView(id);   // 304 也算一次浏览
+        }
+        if (lastModified != null
+                && ConditionalRequests.notModified(request, "item-" + id + "-" + lastModified, lastModified)) {
+            return null; // 304
+        }
         return itemService.findById(id)
                 .map(Result::success)
                 .orElseGet(() -> Result.failure("商品未找到"));
     }
 
     @GetMapping
-    public Result<List<ItemVO>> list() {
-        return Result.success(itemService.listAll());
+    public Result<List<ItemVO>> list(@RequestParam(value = "status", required = false) Integer status,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "size", required = false) Integer size,
+                                     ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, listingVersions.items(), null)) {
+            return null; // 304
+        }
+        try {
+            return Result.page(itemService.listPage(status, null, null, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return Result.failure(e.getMessage());
+        }
+    }
+
+    // 近期最热的在售商品，按浏览和收藏的衰减热度排序
+    @GetMapping("/trending")
+    public Result<List<ItemVO>> trending(@RequestParam(value = "limit", required = false) Integer limit) {
+        int size = limit == null || limit <= 0 ? 10 : Math.min(limit, MAX_TRENDING);
+        return Result.success(popularityTracker.trending(size));
+    }
+
+    // 关键词搜索，支持价格区间、成色筛选和分页
+    @GetMapping("/search")
+    public Result<SearchResultVO> search(ItemSearchDTO query) {
+        return Result.success(itemService.search(query));
+    }
+
+    // 分面浏览：多个筛选条件取交集，同时返回分类、成色、价格区间、地点的商品数
+    @GetMapping("/browse")
+    public Result<BrowseResultVO> browse(ItemBrowseDTO query) {
+        return Result.success(itemService.browse(query));
     }
 
     @GetMapping("/my")
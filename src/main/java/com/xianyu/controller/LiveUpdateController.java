@@ -0,0 +1,39 @@
+package com.xianyu.controller;
+
+import com.xianyu.security.MyUserDetails;
+import com.xianyu.service.impl.LiveUpdateHub;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/live")
+public class LiveUpdateController {
+
+    private final LiveUpdateHub liveUpdateHub;
+
+    public LiveUpdateController(LiveUpdateHub liveUpdateHub) {
+        this.liveUpdateHub = liveUpdateHub;
+    }
+
+    // 订阅商品状态和本人订单的变化推送（SSE）
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@AuthenticationPrincipal MyUserDetails userDetails) {
+        Long userId = null;
+        boolean admin = false;
+        if (userDetails != null && userDetails.getUserVO() != null) {
+            userId = userDetails.getUserVO().getId();
+            admin = userDetails.getUserVO().getRole() != null && userDetails.getUserVO().getRole() == 1;
+        }
+        SseEmitter emitter = liveUpdateHub.subscribe(userId, admin);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -3,6 +3,7 @@ package com.xianyu.controller;
 import com.xianyu.dto.OrderCreateDTO;
 import com.xianyu.service.OrderService;
 import com.xianyu.util.Result;
+import com.xianyu.vo.OrderEventVO;
 import com.xianyu.vo.OrderVO;
 import com.xianyu.security.MyUserDetails;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -78,23 +79,50 @@ public class OrderController {
                 .orElseGet(() -> Result.failure("订单未找到"));
     }
 
-    // 买家订单列表
+    // 订单状态流转记录
+    @GetMapping("/{id}/events")
+    public Result<List<OrderEventVO>> events(@PathVariable("id") Long id,
+                                             @AuthenticationPrincipal MyUserDetails userDetails) {
+        if (userDetails == null) {
+            return Result.failure("未授权");
+        }
+        Long userId = userDetails.getUserVO().getId();
+        return orderService.listEvents(id, userId)
+                .map(Result::success)
+                .orElseGet(() -> Result.failure("未找到或无权限"));
+    }
+
+    // 买家订单列表，可按状态过滤，游标分页
     @GetMapping("/buyer")
-    public Result<List<OrderVO>> listByBuyer(@AuthenticationPrincipal MyUserDetails userDetails) {
+    public Result<List<OrderVO>> listByBuyer(@RequestParam(value = "status", required = false) Integer status,
+                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "size", required = false) Integer size,
+                                             @AuthenticationPrincipal MyUserDetails userDetails) {
         if (userDetails == null) {
             return Result.failure("未授权");
         }
         Long buyerId = userDetails.getUserVO().getId();
-        return Result.success(orderService.listByBuyer(buyerId));
+        try {
+            return Result.page(orderService.listByBuyer(buyerId, status, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return Result.failure(e.getMessage());
+        }
     }
 
-    // 卖家订单列表
+    // 卖家订单列表，可按状态过滤，游标分页
     @GetMapping("/seller")
-    public Result<List<OrderVO>> listBySeller(@AuthenticationPrincipal MyUserDetails userDetails) {
+    public Result<List<OrderVO>> listBySeller(@RequestParam(value = "status", required = false) Integer status,
+                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "size", required = false) Integer size,
+                                              @AuthenticationPrincipal MyUserDetails userDetails) {
         if (userDetails == null) {
             return Result.failure("未授权");
         }
         Long sellerId = userDetails.getUserVO().getId();
-        return Result.success(orderService.listBySeller(sellerId));
+        try {
+            return Result.page(orderService.listBySeller(sellerId, status, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return Result.failure(e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
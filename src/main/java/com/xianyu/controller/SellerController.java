@@ -0,0 +1,30 @@
+package com.xianyu.controller;
+
+import com.xianyu.security.MyUserDetails;
+import com.xianyu.service.SellerStatsService;
+import com.xianyu.util.Result;
+import com.xianyu.vo.SellerStatsVO;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/seller")
+public class SellerController {
+
+    private final SellerStatsService sellerStatsService;
+
+    public SellerController(SellerStatsService sellerStatsService) {
+        this.sellerStatsService = sellerStatsService;
+    }
+
+    // 当前用户作为卖家的统计概览
+    @GetMapping("/stats")
+    public Result<SellerStatsVO> stats(@AuthenticationPrincipal MyUserDetails userDetails) {
+        if (userDetails == null) {
+            return Result.failure("未授权");
+        }
+        return Result.success(sellerStatsService.getStats(userDetails.getUserVO().getId()));
+    }
+}
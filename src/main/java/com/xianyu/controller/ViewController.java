@@ -3,6 +3,12 @@ package com.xianyu.controller;
 import com.xianyu.security.MyUserDetails;
 import com.xianyu.service.FavoriteService;
 import com.xianyu.service.ItemService;
+import com.xianyu.service.impl.OnSaleFeed;
+import com.xianyu.service.impl.PopularityTracker;
+import com.xianyu.service.impl.SimilarItemsIndex;
+import com.xianyu.util.CursorPage;
+import com.xianyu.vo.FavoriteItemVO;
+import com.xianyu.vo.ItemVO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,21 +25,39 @@ public class ViewController {
 
     private final ItemService itemService;
     private final FavoriteService favoriteService;
+    private final OnSaleFeed onSaleFeed;
+    private final SimilarItemsIndex similarItemsIndex;
+    private final PopularityTracker popularityTracker;
+
+    private static final int SIMILAR_ITEMS_SHOWN = 6;
 
     @Autowired
-    public ViewController(ItemService itemService, FavoriteService favoriteService) {
+    public ViewController(ItemService itemService, FavoriteService favoriteService, OnSaleFeed onSaleFeed,
+                          SimilarItemsIndex similarItemsIndex, PopularityTracker popularityTracker) {
         this.itemService = itemService;
         this.favoriteService = favoriteService;
+        this.onSaleFeed = onSaleFeed;
+        this.similarItemsIndex = similarItemsIndex;
+        this.popularityTracker = popularityTracker;
     }
 
     // 首页/商品列表
     @GetMapping({"/", "/index.html", "/index"})
-    public String index(Model model, @AuthenticationPrincipal MyUserDetails userDetails) {
+    public String index(@RequestParam(value = "cursor", required = false) String cursor,
+                        Model model, @AuthenticationPrincipal MyUserDetails userDetails) {
 
         if (isAdmin(userDetails)) {
             return "redirect:/admin.html";
         }
-        model.addAttribute("items", itemService.listOnSale());
+        // 直接读内存中的在售快照，不查库
+        CursorPage<ItemVO> page;
+        try {
+            page = onSaleFeed.page(cursor, null);
+        } catch (IllegalArgumentException e) {
+            page = onSaleFeed.page(null, null);   // 游标无效时回到第一页
+        }
+        model.addAttribute("items", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
         return "index";
     }
 
@@ -44,12 +68,15 @@ public class ViewController {
             return "redirect:/admin.html";
         }
         itemService.findById(id).ifPresent(item -> {
+            popularityTracker.recordView(id);
             model.addAttribute("item", item);
             // 判断当前用户是否为商品发布者
             boolean isOwner = userDetails != null && userDetails.getUserVO() != null 
                     && item.getOwnerId() != null 
                     && item.getOwnerId().equals(userDetails.getUserVO().getId());
             model.addAttribute("isOwner", isOwner);
+            // 预先算好的近邻列表，只读内存
+            model.addAttribute("similarItems", similarItemsIndex.similarTo(id, SIMILAR_ITEMS_SHOWN));
         });
         return "item-detail";
     }
@@ -83,7 +110,8 @@ public class ViewController {
     }
 
     @GetMapping("/my-orders.html")
-    public String myOrders(Model model, @AuthenticationPrincipal MyUserDetails userDetails) {
+    public String myOrders(@RequestParam(value = "favCursor", required = false) String favCursor,
+                           Model model, @AuthenticationPrincipal MyUserDetails userDetails) {
         if (isAdmin(userDetails)) {
             return "redirect:/admin.html";
         }
@@ -92,12 +120,20 @@ public class ViewController {
 
         System.out.println("当前登录userId = " + userId);
 
-        var favorites = userId == null ? Collections.emptyList() : favoriteService.listByUser(userId);
+        CursorPage<FavoriteItemVO> favorites = new CursorPage<>(Collections.emptyList(), null);
+        if (userId != null) {
+            try {
+                favorites = favoriteService.listPage(userId, favCursor, null);
+            } catch (IllegalArgumentException e) {
+                favorites = favoriteService.listPage(userId, null, null);
+            }
+        }
         var myItems = userId == null ? Collections.emptyList() : itemService.listByOwnerId(userId);
 
         System.out.println("查到我的商品条数: " + myItems.size());
 
-        model.addAttribute("favorites", favorites);
+        model.addAttribute("favorites", favorites.getItems());
+        model.addAttribute("favNextCursor", favorites.getNextCursor());
         model.addAttribute("myItems", myItems);
         return "my-orders";
     }
@@ -1,8 +1,11 @@
 package com.xianyu.dao;
 
 import com.xianyu.entity.Favorite;
+import com.xianyu.vo.FavoriteItemVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,19 @@ public interface FavoriteMapper {
     int delete(@Param("userId") Long userId, @Param("itemId") Long itemId);
 
     Optional<Favorite> find(@Param("userId") Long userId, @Param("itemId") Long itemId);
-}
\ No newline at end of file
+
+    List<Long> listItemIdsByUser(@Param("userId") Long userId);
+
+    // 按 f.id 键集分页的收藏列表，一次联表查询直接映射为扁平 VO
+    List<FavoriteItemVO> listByUserPage(@Param("userId") Long userId,
+                                        @Param("cursor") Long cursor,
+                                        @Param("limit") int limit);
+
+    // 多行插入，已存在的 (user_id, item_id) 忽略
+    int insertBatch(@Param("list") List<Favorite> favorites);
+
+    int deleteBatch(@Param("list") List<Favorite> favorites);
+
+    // 按用户流式读取全部收藏（只有 user_id、item_id），同一用户内最新的在前；必须在事务内遍历并关闭
+    Cursor<Favorite> scanAll();
+}
@@ -3,7 +3,9 @@ package com.xianyu.dao;
 import com.xianyu.entity.Item;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,10 +16,15 @@ public interface ItemMapper {
 
     int update(Item item);
 
+    // 部分更新：changes 中非空的字段才写入，同时版本号加一；返回 0 表示版本不一致或商品已删除
+    int updateChanged(@Param("id") Long id, @Param("version") Integer version, @Param("changes") Item changes);
+
     int delete(@Param("id") Long id);
 
     Optional<Item> findById(@Param("id") Long id);
 
+    List<Item> findByIds(@Param("ids") Collection<Long> ids);
+
     List<Item> findAll();
 
     List<Item> findBySeller(@Param("sellerId") Long sellerId);
@@ -26,6 +33,27 @@ public interface ItemMapper {
 
     int updateStatus(@Param("id") Long id, @Param("status") Integer status);
 
+    // 仅当当前状态为 expected 时才修改，返回 0 表示状态已被他人改变
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expected") Integer expected,
+                            @Param("status") Integer status);
+
     List<Item> findByStatus(@Param("status") Integer status);
-}
 
+    // 键集分页：status/category/sellerId 为空时不作为过滤条件，cursor 为空时从最新一条开始
+    List<Item> findPage(@Param("status") Integer status,
+                        @Param("category") String category,
+                        @Param("sellerId") Long sellerId,
+                        @Param("cursor") Long cursor,
+                        @Param("limit") int limit);
+
+    // 加锁读取 ids 中当前状态为 expected 的商品（整行），用于批量审核
+    List<Item> lockByStatus(@Param("ids") Collection<Long> ids, @Param("expected") Integer expected);
+
+    int updateStatusBatch(@Param("ids") Collection<Long> ids,
+                          @Param("expected") Integer expected,
+                          @Param("status") Integer status);
+
+    // 按 id 顺序流式读取全表，供导出使用；必须在事务内遍历并关闭
+    Cursor<Item> scanAll();
+}
@@ -0,0 +1,17 @@
+package com.xianyu.dao;
+
+import com.xianyu.entity.ItemPopularity;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface ItemPopularityMapper {
+
+    // 多行写入：浏览数、收藏数累加本批增量，热度和更新时间直接覆盖
+    int upsertBatch(@Param("list") List<ItemPopularity> rows);
+
+    // 启动时恢复热度用，按写入时的热度取前 limit 条
+    List<ItemPopularity> findTop(@Param("limit") int limit);
+}
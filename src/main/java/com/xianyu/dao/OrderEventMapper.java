@@ -0,0 +1,15 @@
+package com.xianyu.dao;
+
+import com.xianyu.entity.OrderEvent;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface OrderEventMapper {
+
+    int insert(OrderEvent event);
+
+    List<OrderEvent> findByOrder(@Param("orderId") Long orderId);
+}
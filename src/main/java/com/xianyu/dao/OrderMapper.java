@@ -3,7 +3,9 @@ package com.xianyu.dao;
 import com.xianyu.entity.Order;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +16,31 @@ public interface OrderMapper {
 
     int update(Order order);
 
+    // 仅当当前状态为 expected 时更新，返回 0 表示状态已被其他请求改变
+    int compareAndSetStatus(@Param("id") Long id, @Param("expected") Integer expected,
+                            @Param("status") Integer status, @Param("finishTime") LocalDateTime finishTime);
+
+    // 按 (create_time, id) 从早到晚取出 createdBefore 之前仍处于 status 的订单；
+    // afterCreateTime、afterId 为上一批最后一条的位置，为空时从头开始
+    List<Order> findByStatusCreatedBefore(@Param("status") Integer status,
+                                          @Param("createdBefore") LocalDateTime createdBefore,
+                                          @Param("afterCreateTime") LocalDateTime afterCreateTime,
+                                          @Param("afterId") Long afterId,
+                                          @Param("limit") int limit);
+
     Optional<Order> findById(@Param("id") Long id);
 
-    List<Order> findByBuyer(@Param("buyerId") Long buyerId);
+    // 键集分页：cursor 为上一页最后一条的 id，status 为空时不按状态过滤
+    List<Order> findPageByBuyer(@Param("buyerId") Long buyerId,
+                                @Param("status") Integer status,
+                                @Param("cursor") Long cursor,
+                                @Param("limit") int limit);
+
+    List<Order> findPageBySeller(@Param("sellerId") Long sellerId,
+                                 @Param("status") Integer status,
+                                 @Param("cursor") Long cursor,
+                                 @Param("limit") int limit);
 
-    List<Order> findBySeller(@Param("sellerId") Long sellerId);
+    // 按 id 顺序流式读取全表，供导出使用；必须在事务内遍历并关闭
+    Cursor<Order> scanAll();
 }
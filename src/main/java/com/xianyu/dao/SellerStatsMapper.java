@@ -0,0 +1,18 @@
+package com.xianyu.dao;
+
+import com.xianyu.vo.SellerStatsVO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+// 卖家统计的 SQL 汇总，只在首次加载和定时校准时使用
+@Mapper
+public interface SellerStatsMapper {
+
+    // 填充商品按状态的计数
+    SellerStatsVO countItems(@Param("sellerId") Long sellerId);
+
+    // 填充订单计数和成交额
+    SellerStatsVO countOrders(@Param("sellerId") Long sellerId);
+
+    long countFavoritesReceived(@Param("sellerId") Long sellerId);
+}
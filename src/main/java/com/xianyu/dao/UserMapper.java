@@ -3,7 +3,9 @@ package com.xianyu.dao;
 import com.xianyu.entity.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +16,8 @@ public interface UserMapper {
 
     Optional<User> findById(@Param("id") Long id);
 
+    List<User> findByIds(@Param("ids") Collection<Long> ids);
+
     Optional<User> findByUsername(@Param("username") String username);
 
     Optional<User> findByStudentId(@Param("studentId") String studentId);
@@ -21,5 +25,7 @@ public interface UserMapper {
     List<User> findAll();
 
     int updateStatus(@Param("id") Long id, @Param("status") Integer status);
-}
 
+    // 按 id 顺序流式读取全表，供导出使用；必须在事务内遍历并关闭
+    Cursor<User> scanAll();
+}
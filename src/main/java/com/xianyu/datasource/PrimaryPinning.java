@@ -0,0 +1,62 @@
+package com.xianyu.datasource;
+
+import com.xianyu.event.FavoriteChangedEvent;
+import com.xianyu.event.ItemChangedEvent;
+import com.xianyu.event.OrderChangedEvent;
+import com.xianyu.security.MyUserDetails;
+import com.xianyu.util.LocalCache;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写后读一致：刚写过数据的用户在一段时间内的读请求都走主库，避免从副本读到自己写之前的数据。
+ * 受影响的用户取自变更事件（卖家、买家、收藏者）和当前登录的操作人。
+ */
+public class PrimaryPinning {
+
+    private final LocalCache<Long, Boolean> pinnedUsers;
+
+    public PrimaryPinning(int maxUsers, long pinMillis) {
+        this.pinnedUsers = new LocalCache<>("primary-pinned-users", maxUsers, pinMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // 当前登录用户是否仍在写后窗口内
+    public boolean isCurrentUserPinned() {
+        Long userId = currentUserId();
+        return userId != null && pinnedUsers.get(userId) != null;
+    }
+
+    public void pin(Long userId) {
+        pinnedUsers.put(userId, Boolean.TRUE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        pin(event.getSellerId());
+        pin(currentUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        pin(event.getBuyerId());
+        pin(event.getSellerId());
+        pin(currentUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        pin(event.getUserId());
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof MyUserDetails user
+                && user.getUserVO() != null) {
+            return user.getUserVO().getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.xianyu.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 读写分离路由：只读事务（@Transactional(readOnly = true)）里的语句发往可用且延迟在阈值内的副本，
+ * 多个副本轮询；其余语句、写后窗口内的用户、以及没有合适副本时都走主库。
+ * 需要包在 LazyConnectionDataSourceProxy 里使用，保证取连接时事务的只读标记已经设置好。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final PrimaryPinning pinning;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<Replica> replicas, PrimaryPinning pinning,
+                                      long maxLagMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.pinning = pinning;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    // 路由目标在初始化回调里设置，而不是在构造器里调用父类的可覆盖方法
+    @Override
+    public void afterPropertiesSet() {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        super.afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (pinning.isCurrentUserPinned()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isUsable(maxLagMillis)) {
+                replicaReads.increment();
+                return replica.getName();
+            }
+        }
+        // 所有副本都不可用或延迟过大，退回主库
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicaReads", replicaReads.sum());
+        stats.put("pinnedPrimaryReads", primaryReads.sum());
+        stats.put("fallbacks", fallbacks.sum());
+        stats.put("maxLagMillis", maxLagMillis);
+        List<Map<String, Object>> states = replicas.stream().map(replica -> {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("name", replica.getName());
+            state.put("available", replica.isAvailable());
+            state.put("lagMillis", replica.getLagMillis());
+            state.put("stale", replica.isStale());
+            state.put("usable", replica.isUsable(maxLagMillis));
+            return state;
+        }).toList();
+        stats.put("replicas", states);
+        return stats;
+    }
+
+    // 主库连接池由 Spring 单独管理，这里只关闭副本的连接池
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.xianyu.datasource;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个只读副本及其最近一次探测的结果，由 ReplicaLagMonitor 更新，路由时读取。
+ * 探测结果超过 staleAfterMillis 没有更新（探测任务卡住或被其它定时任务拖住）时视为不可用。
+ */
+public class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private final long staleAfterNanos;
+
+    private volatile boolean available;
+    private volatile long lagMillis = -1;   // -1 表示尚未探测或未开启延迟检测
+    private volatile long checkedAt;        // 最近一次探测的 System.nanoTime()
+
+    public Replica(String name, DataSource dataSource, long staleAfterMillis) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(staleAfterMillis);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public boolean isStale() {
+        return System.nanoTime() - checkedAt > staleAfterNanos;
+    }
+
+    // maxLagMillis <= 0 时不检查延迟，只要能连通就使用
+    public boolean isUsable(long maxLagMillis) {
+        return available && !isStale() && (maxLagMillis <= 0 || (lagMillis >= 0 && lagMillis <= maxLagMillis));
+    }
+
+    void update(boolean available, long lagMillis) {
+        this.available = available;
+        this.lagMillis = lagMillis;
+        this.checkedAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,82 @@
+package com.xianyu.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 定期探测副本延迟：先在主库写入当前时间作为心跳，再到各副本读回心跳，
+ * 两者之差即复制延迟。读不到或连不上的副本标记为不可用，路由时跳过。
+ * 延迟检测关闭（maxLagMillis <= 0）时只检查连通性，便于用两个不做复制的本地库调试路由。
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final int QUERY_TIMEOUT_SECONDS = 1;
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas;
+    private final Map<String, JdbcTemplate> replicaTemplates = new HashMap<>();
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(DataSource primary, List<Replica> replicas, long maxLagMillis) {
+        this.primary = template(primary);
+        this.replicas = replicas;
+        this.maxLagMillis = maxLagMillis;
+        replicas.forEach(replica -> replicaTemplates.put(replica.getName(), template(replica.getDataSource())));
+    }
+
+    @Scheduled(fixedDelayString = "${xianyu.datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        boolean lagCheck = maxLagMillis > 0;
+        if (lagCheck) {
+            try {
+                primary.update("UPDATE replica_heartbeat SET beat = ? WHERE id = 1", System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                // 写不了心跳就无法判断延迟，这一轮所有副本都不用
+                log.warn("写入副本心跳失败：{}", e.getMessage());
+                replicas.forEach(replica -> mark(replica, false, -1));
+                return;
+            }
+        }
+        for (Replica replica : replicas) {
+            JdbcTemplate template = replicaTemplates.get(replica.getName());
+            try {
+                if (lagCheck) {
+                    Long beat = template.queryForObject("SELECT beat FROM replica_heartbeat WHERE id = 1", Long.class);
+                    mark(replica, true, beat == null ? -1 : Math.max(0, System.currentTimeMillis() - beat));
+                } else {
+                    template.queryForObject("SELECT 1", Integer.class);
+                    mark(replica, true, -1);
+                }
+            } catch (RuntimeException e) {
+                if (replica.isAvailable()) {
+                    log.warn("副本 {} 探测失败：{}", replica.getName(), e.getMessage());
+                }
+                mark(replica, false, -1);
+            }
+        }
+    }
+
+    private void mark(Replica replica, boolean available, long lagMillis) {
+        boolean wasUsable = replica.isUsable(maxLagMillis);
+        replica.update(available, lagMillis);
+        boolean usable = replica.isUsable(maxLagMillis);
+        if (usable != wasUsable) {
+            log.info("副本 {} {}，延迟 {} ms", replica.getName(), usable ? "恢复使用" : "暂停使用", lagMillis);
+        }
+    }
+
+    private static JdbcTemplate template(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        return template;
+    }
+}
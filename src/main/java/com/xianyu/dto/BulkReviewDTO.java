@@ -0,0 +1,16 @@
+package com.xianyu.dto;
+
+import java.util.List;
+
+public class BulkReviewDTO {
+
+    private List<Long> ids;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
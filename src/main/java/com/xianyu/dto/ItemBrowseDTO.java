@@ -0,0 +1,59 @@
+package com.xianyu.dto;
+
+public class ItemBrowseDTO {
+
+    private String category;
+    private Integer conditions;
+    private String price;       // 价格区间，取值见 ItemFacetIndex.PRICE_BUCKETS，如 "100-500"
+    private String location;
+    private Integer page;       // 从 1 开始
+    private Integer size;
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Integer getConditions() {
+        return conditions;
+    }
+
+    public void setConditions(Integer conditions) {
+        this.conditions = conditions;
+    }
+
+    public String getPrice() {
+        return price;
+    }
+
+    public void setPrice(String price) {
+        this.price = price;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+}
@@ -15,6 +15,7 @@ public class ItemDTO {
     private String location;
     private String imageUrls;
     private Integer status;
+    private Integer version;    // 编辑时读到的版本号；为空时以服务端当前版本为准
 
     public Long getId() {
         return id;
@@ -105,5 +106,12 @@ public class ItemDTO {
     }
 
 
-}
 
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
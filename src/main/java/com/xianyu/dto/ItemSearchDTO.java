@@ -0,0 +1,61 @@
+package com.xianyu.dto;
+
+import java.math.BigDecimal;
+
+public class ItemSearchDTO {
+
+    private String q;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer conditions;
+    private Integer page;   // 从 1 开始
+    private Integer size;
+
+    public String getQ() {
+        return q;
+    }
+
+    public void setQ(String q) {
+        this.q = q;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getConditions() {
+        return conditions;
+    }
+
+    public void setConditions(Integer conditions) {
+        this.conditions = conditions;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+}
@@ -8,6 +8,7 @@ public class Favorite {
     private Long userId;
     private Long itemId;
     private Item item;
+    private LocalDateTime createTime;
 
     public Long getId() {
         return id;
@@ -40,5 +41,12 @@ public class Favorite {
     public void setItem(Item item) {
         this.item = item;
     }
-}
 
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(LocalDateTime createTime) {
+        this.createTime = createTime;
+    }
+}
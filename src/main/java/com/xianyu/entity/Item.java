@@ -1,6 +1,7 @@
 package com.xianyu.entity;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class Item {
 
@@ -16,6 +17,8 @@ public class Item {
     private String contactWay;
     private String location;
     private String imageUrls;
+    private LocalDateTime updateTime;
+    private Integer version;       // 乐观锁版本号，每次修改加一
 
     public Long getId() {
         return id;
@@ -113,5 +116,20 @@ public class Item {
         this.imageUrls = imageUrls;
     }
 
-}
 
+    public LocalDateTime getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(LocalDateTime updateTime) {
+        this.updateTime = updateTime;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
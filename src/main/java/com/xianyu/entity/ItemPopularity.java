@@ -0,0 +1,52 @@
+package com.xianyu.entity;
+
+import java.time.LocalDateTime;
+
+public class ItemPopularity {
+
+    private Long itemId;
+    private Long viewCount;       // 落库时为本批增量，库里为累计值
+    private Long favoriteCount;
+    private Double score;         // 写入时刻按时间衰减后的热度
+    private LocalDateTime updateTime;
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public Long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(Long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public Long getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    public void setFavoriteCount(Long favoriteCount) {
+        this.favoriteCount = favoriteCount;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public LocalDateTime getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(LocalDateTime updateTime) {
+        this.updateTime = updateTime;
+    }
+}
@@ -11,6 +11,8 @@ public class Order {
     private Long sellerId;
     private BigDecimal itemPrice;
     private Integer status;
+    private LocalDateTime createTime;
+    private LocalDateTime finishTime;
 
     public Long getId() {
         return id;
@@ -60,4 +62,19 @@ public class Order {
         this.status = status;
     }
 
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(LocalDateTime createTime) {
+        this.createTime = createTime;
+    }
+
+    public LocalDateTime getFinishTime() {
+        return finishTime;
+    }
+
+    public void setFinishTime(LocalDateTime finishTime) {
+        this.finishTime = finishTime;
+    }
 }
@@ -0,0 +1,82 @@
+package com.xianyu.entity;
+
+import java.time.LocalDateTime;
+
+// 订单状态流转记录
+public class OrderEvent {
+
+    private Long id;
+    private Long orderId;
+    private Integer fromStatus;     // 创建时为空
+    private Integer toStatus;
+    private String reason;          // CREATED / FINISHED / CANCELLED / EXPIRED
+    private Long operatorId;        // 系统自动处理时为空
+    private LocalDateTime createTime;
+
+    public OrderEvent() {
+    }
+
+    public OrderEvent(Long orderId, Integer fromStatus, Integer toStatus, String reason, Long operatorId) {
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.reason = reason;
+        this.operatorId = operatorId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Integer getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(Integer fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public Integer getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(Integer toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public Long getOperatorId() {
+        return operatorId;
+    }
+
+    public void setOperatorId(Long operatorId) {
+        this.operatorId = operatorId;
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(LocalDateTime createTime) {
+        this.createTime = createTime;
+    }
+}
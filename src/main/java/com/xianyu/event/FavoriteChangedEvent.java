@@ -0,0 +1,29 @@
+package com.xianyu.event;
+
+/**
+ * 用户收藏或取消收藏商品后发布；重复收藏、取消未收藏的商品不会发布。
+ */
+public class FavoriteChangedEvent {
+
+    private final Long userId;
+    private final Long itemId;
+    private final boolean added;
+
+    public FavoriteChangedEvent(Long userId, Long itemId, boolean added) {
+        this.userId = userId;
+        this.itemId = itemId;
+        this.added = added;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public boolean isAdded() {
+        return added;
+    }
+}
@@ -0,0 +1,59 @@
+package com.xianyu.event;
+
+import com.xianyu.entity.Item;
+
+/**
+ * 商品写操作完成后发布。item 为写入后的实体；删除或未持有实体（如管理员审核）时为 null，
+ * 监听方需要时自行按 itemId 读取。sellerId、previousStatus、status 在写路径已知时填写，未知为 null。
+ */
+public class ItemChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, STATUS_CHANGED, DELETED
+    }
+
+    private final Long itemId;
+    private final Type type;
+    private final Item item;
+    private final Long sellerId;
+    private final Integer previousStatus;
+    private final Integer status;
+
+    public ItemChangedEvent(Long itemId, Type type, Item item) {
+        this(itemId, type, item, item == null ? null : item.getSellerId(), null, item == null ? null : item.getStatus());
+    }
+
+    public ItemChangedEvent(Long itemId, Type type, Item item, Long sellerId, Integer previousStatus, Integer status) {
+        this.itemId = itemId;
+        this.type = type;
+        this.item = item;
+        this.sellerId = sellerId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Item getItem() {
+        return item;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public Integer getPreviousStatus() {
+        return previousStatus;
+    }
+
+    // 变更后的状态；删除时为 null
+    public Integer getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,53 @@
+package com.xianyu.event;
+
+import java.math.BigDecimal;
+
+/**
+ * 订单状态变化后发布，携带买卖双方ID，方便监听方只通知相关用户。
+ */
+public class OrderChangedEvent {
+
+    public enum Type {
+        CREATED, FINISHED, CANCELLED, EXPIRED
+    }
+
+    private final Long orderId;
+    private final Long itemId;
+    private final Long buyerId;
+    private final Long sellerId;
+    private final BigDecimal itemPrice;
+    private final Type type;
+
+    public OrderChangedEvent(Long orderId, Long itemId, Long buyerId, Long sellerId, BigDecimal itemPrice, Type type) {
+        this.orderId = orderId;
+        this.itemId = itemId;
+        this.buyerId = buyerId;
+        this.sellerId = sellerId;
+        this.itemPrice = itemPrice;
+        this.type = type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public Long getBuyerId() {
+        return buyerId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public BigDecimal getItemPrice() {
+        return itemPrice;
+    }
+
+    public Type getType() {
+        return type;
+    }
+}
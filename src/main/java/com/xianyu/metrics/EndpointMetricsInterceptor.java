@@ -0,0 +1,48 @@
+package com.xianyu.metrics;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * 记录每个控制器方法的耗时和本次请求执行的 SQL 条数，指标名形如 ItemController.list。
+ */
+@Component
+public class EndpointMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTR = EndpointMetricsInterceptor.class.getName() + ".start";
+
+    private final MetricsRegistry metricsRegistry;
+
+    public EndpointMetricsInterceptor(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步请求（如 SSE）结束时的再次分派不重复计数
+        if (handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(START_ATTR, System.nanoTime());
+            metricsRegistry.beginRequest();
+        }
+        return true;
+    }
+
+    // 异步请求只统计到处理方法返回为止，长连接的持续时间不计入耗时
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        afterCompletion(request, response, handler, null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (handler instanceof HandlerMethod method && request.getAttribute(START_ATTR) instanceof Long start) {
+            request.removeAttribute(START_ATTR);
+            String endpoint = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+            metricsRegistry.endRequest(endpoint, System.nanoTime() - start);
+        }
+    }
+}
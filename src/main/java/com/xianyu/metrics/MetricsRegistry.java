@@ -0,0 +1,89 @@
+package com.xianyu.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 接口与 Mapper 语句的性能指标，按 Prometheus 文本格式输出。
+ * 每个请求的 SQL 次数通过线程变量累计，请求结束时记到对应接口上。
+ */
+@Component
+public class MetricsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, Histogram> endpointLatency = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> endpointQueries = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> statementLatency = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> statementRows = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<int[]> requestQueries = new ThreadLocal<>();
+
+    public void beginRequest() {
+        requestQueries.set(new int[1]);
+    }
+
+    public void endRequest(String endpoint, long elapsedNanos) {
+        int[] queries = requestQueries.get();
+        requestQueries.remove();
+        endpointLatency.computeIfAbsent(endpoint, k -> new Histogram())
+                .recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        endpointQueries.computeIfAbsent(endpoint, k -> new Histogram())
+                .recordValue(queries == null ? 0 : queries[0]);
+    }
+
+    public void recordStatement(String statement, long elapsedNanos, int rows) {
+        statementLatency.computeIfAbsent(statement, k -> new Histogram())
+                .recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (rows > 0) {
+            statementRows.computeIfAbsent(statement, k -> new LongAdder()).add(rows);
+        }
+        int[] queries = requestQueries.get();
+        if (queries != null) {
+            queries[0]++;
+        }
+    }
+
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(4096);
+        writeSummary(sb, "xianyu_http_request_duration_seconds", "Controller endpoint latency",
+                "endpoint", endpointLatency, true);
+        writeSummary(sb, "xianyu_http_request_queries", "SQL statements executed per request",
+                "endpoint", endpointQueries, false);
+        writeSummary(sb, "xianyu_mapper_query_duration_seconds", "Mapper statement latency",
+                "statement", statementLatency, true);
+
+        sb.append("# HELP xianyu_mapper_rows_fetched_total Rows returned by mapper select statements\n");
+        sb.append("# TYPE xianyu_mapper_rows_fetched_total counter\n");
+        new TreeMap<>(statementRows).forEach((statement, rows) ->
+                sb.append("xianyu_mapper_rows_fetched_total{statement=\"").append(statement).append("\"} ")
+                        .append(rows.sum()).append('\n'));
+        return sb.toString();
+    }
+
+    private static void writeSummary(StringBuilder sb, String name, String help, String label,
+                                     Map<String, Histogram> histograms, boolean micros) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(" summary\n");
+        new TreeMap<>(histograms).forEach((key, h) -> {
+            String labels = label + "=\"" + key + "\"";
+            for (double q : QUANTILES) {
+                sb.append(name).append('{').append(labels).append(",quantile=\"").append(q).append("\"} ")
+                        .append(format(h.valueAtPercentile(q), micros)).append('\n');
+            }
+            sb.append(name).append("_sum{").append(labels).append("} ").append(format(h.getSum(), micros)).append('\n');
+            sb.append(name).append("_count{").append(labels).append("} ").append(h.getCount()).append('\n');
+        });
+    }
+
+    // 延迟内部按微秒记录，输出时换算为秒
+    private static String format(long value, boolean micros) {
+        return micros ? String.format(Locale.ROOT, "%.6f", value / 1_000_000.0) : Long.toString(value);
+    }
+}
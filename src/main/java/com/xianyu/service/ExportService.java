@@ -0,0 +1,20 @@
+package com.xianyu.service;
+
+import com.xianyu.util.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    // 导出的数据集：users、items、orders
+    boolean supports(String dataset);
+
+    // 占用一个导出名额，名额用完时返回 false；拿到名额后无论 export 是否成功都要调用 release
+    boolean tryAcquire();
+
+    void release();
+
+    // 逐行读取并写入 out，返回导出的行数；调用方负责关闭 out
+    long export(String dataset, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -1,5 +1,7 @@
 package com.xianyu.service;
 
+import com.xianyu.util.CursorPage;
+import com.xianyu.vo.FavoriteItemVO;
 import com.xianyu.vo.FavoriteVO;
 
 import java.util.List;
@@ -12,6 +14,10 @@ public interface FavoriteService {
 
     List<FavoriteVO> listByUser(Long userId);
 
+    CursorPage<FavoriteItemVO> listPage(Long userId, String cursor, Integer size);
+
     Optional<FavoriteVO> findByUserAndItem(Long userId, Long itemId);
+
+    boolean isFavorited(Long userId, Long itemId);
 }
 
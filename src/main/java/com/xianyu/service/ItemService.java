@@ -1,7 +1,13 @@
 package com.xianyu.service;
 
+import com.xianyu.dto.ItemBrowseDTO;
 import com.xianyu.dto.ItemDTO;
+import com.xianyu.dto.ItemSearchDTO;
+import com.xianyu.util.CursorPage;
+import com.xianyu.vo.BrowseResultVO;
 import com.xianyu.vo.ItemVO;
+import com.xianyu.vo.ReviewResultVO;
+import com.xianyu.vo.SearchResultVO;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,12 +22,34 @@ ItemService {
 
     Optional<ItemVO> findById(Long id);
 
+    // 商品最后修改时间（毫秒），供条件请求在 VO 转换之前判断
+    Optional<Long> lastModified(Long id);
+
     List<ItemVO> listAll();
 
     List<ItemVO> listOnSale();
 
+    CursorPage<ItemVO> listPage(Integer status, String category, Long sellerId, String cursor, Integer size);
+
+    SearchResultVO search(ItemSearchDTO query);
+
+    // 按分类、成色、价格区间、地点组合筛选在售商品，并返回各维度的计数
+    BrowseResultVO browse(ItemBrowseDTO query);
+
     List<ItemVO> listByOwnerId(Long ownerId);
 
     boolean updateStatus(Long id, Integer status, Long ownerId);
+
+    // 管理员审核：通过(1)或驳回(4)，只处理待审核状态的商品
+    boolean reviewItem(Long id, Integer status);
+
+    // 批量审核，只处理待审核状态的商品，按ID返回每件商品的结果
+    List<ReviewResultVO> reviewItems(List<Long> ids, Integer status);
+
+    // 下单时原子地把在售商品标记为已售出，已被他人买走时返回 false
+    boolean reserve(Long id);
+
+    // 订单取消后把已售出商品恢复为在售
+    boolean release(Long id);
 }
 
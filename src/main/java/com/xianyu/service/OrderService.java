@@ -1,8 +1,11 @@
 package com.xianyu.service;
 
 import com.xianyu.dto.OrderCreateDTO;
+import com.xianyu.util.CursorPage;
+import com.xianyu.vo.OrderEventVO;
 import com.xianyu.vo.OrderVO;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +18,18 @@ public interface OrderService {
 
     Optional<OrderVO> findById(Long orderId);
 
-    List<OrderVO> listByBuyer(Long buyerId);
+    // 一批超时订单的处理结果；lastCreateTime、lastId 为本批最后一条的位置，下一批从它之后继续
+    record ExpiryBatch(int scanned, int expired, LocalDateTime lastCreateTime, Long lastId) {
+    }
 
-    List<OrderVO> listBySeller(Long sellerId);
+    // 自动取消 createdBefore 之前创建、仍待处理的订单，从 (afterCreateTime, afterId) 之后取最多 batchSize 条；
+    // 两者为空时从最早的开始
+    ExpiryBatch expirePendingOrders(LocalDateTime createdBefore, LocalDateTime afterCreateTime, Long afterId, int batchSize);
+
+    // 订单状态流转记录，仅买卖双方可见
+    Optional<List<OrderEventVO>> listEvents(Long orderId, Long userId);
+
+    CursorPage<OrderVO> listByBuyer(Long buyerId, Integer status, String cursor, Integer size);
+
+    CursorPage<OrderVO> listBySeller(Long sellerId, Integer status, String cursor, Integer size);
 }
@@ -0,0 +1,8 @@
+package com.xianyu.service;
+
+import com.xianyu.vo.SellerStatsVO;
+
+public interface SellerStatsService {
+
+    SellerStatsVO getStats(Long sellerId);
+}
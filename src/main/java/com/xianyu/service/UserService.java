@@ -15,4 +15,7 @@ public interface UserService {
     Optional<User> findEntityByUsername(String username);  // 正常保留即可
 
     Optional<UserVO> findByUsername(String username);
+
+    // 启用/禁用账号，同时清除该用户的缓存
+    boolean updateStatus(Long id, Integer status);
 }
\ No newline at end of file
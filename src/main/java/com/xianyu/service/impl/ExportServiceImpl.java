@@ -0,0 +1,206 @@
+package com.xianyu.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xianyu.dao.ItemMapper;
+import com.xianyu.dao.OrderMapper;
+import com.xianyu.dao.UserMapper;
+import com.xianyu.entity.Item;
+import com.xianyu.entity.Order;
+import com.xianyu.entity.User;
+import com.xianyu.service.ExportService;
+import com.xianyu.util.ExportFormat;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 管理后台全量导出：用 MyBatis 游标逐行读取，边读边写到响应流，内存占用与行数无关。
+ * 每个导出在整个下载期间占着一个连接池连接，因此限制并发数，并在超过时限后中止，
+ * 避免几个慢速下载把连接池占满。
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    // 每写这么多行刷新一次输出，让客户端尽早收到数据
+    private static final int FLUSH_ROWS = 500;
+
+    private record Column<T>(String name, Function<T, Object> getter) {
+    }
+
+    // 用户导出不含密码
+    private static final List<Column<User>> USER_COLUMNS = List.of(
+            new Column<>("id", User::getId),
+            new Column<>("studentId", User::getStudentId),
+            new Column<>("username", User::getUsername),
+            new Column<>("phone", User::getPhone),
+            new Column<>("email", User::getEmail),
+            new Column<>("status", User::getStatus),
+            new Column<>("role", User::getRole));
+
+    private static final List<Column<Item>> ITEM_COLUMNS = List.of(
+            new Column<>("id", Item::getId),
+            new Column<>("name", Item::getName),
+            new Column<>("description", Item::getDescription),
+            new Column<>("price", Item::getPrice),
+            new Column<>("originalPrice", Item::getOriginalPrice),
+            new Column<>("category", Item::getCategory),
+            new Column<>("conditions", Item::getConditions),
+            new Column<>("status", Item::getStatus),
+            new Column<>("sellerId", Item::getSellerId),
+            new Column<>("contactWay", Item::getContactWay),
+            new Column<>("location", Item::getLocation),
+            new Column<>("imageUrls", Item::getImageUrls),
+            new Column<>("updateTime", Item::getUpdateTime),
+            new Column<>("version", Item::getVersion));
+
+    private static final List<Column<Order>> ORDER_COLUMNS = List.of(
+            new Column<>("id", Order::getId),
+            new Column<>("itemId", Order::getItemId),
+            new Column<>("buyerId", Order::getBuyerId),
+            new Column<>("sellerId", Order::getSellerId),
+            new Column<>("itemPrice", Order::getItemPrice),
+            new Column<>("status", Order::getStatus),
+            new Column<>("createTime", Order::getCreateTime),
+            new Column<>("finishTime", Order::getFinishTime));
+
+    private final UserMapper userMapper;
+    private final ItemMapper itemMapper;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    public ExportServiceImpl(UserMapper userMapper, ItemMapper itemMapper, OrderMapper orderMapper,
+                             ObjectMapper objectMapper,
+                             @Value("${xianyu.export.max-concurrent:2}") int maxConcurrent,
+                             @Value("${xianyu.export.timeout-seconds:600}") long timeoutSeconds) {
+        this.userMapper = userMapper;
+        this.itemMapper = itemMapper;
+        this.orderMapper = orderMapper;
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    @Override
+    public void release() {
+        permits.release();
+    }
+
+    @Override
+    public boolean supports(String dataset) {
+        return "users".equals(dataset) || "items".equals(dataset) || "orders".equals(dataset);
+    }
+
+    // 游标依赖打开的连接，整个遍历过程放在一个只读事务里（开启只读副本时路由到副本）
+    @Override
+    @Transactional(readOnly = true)
+    public long export(String dataset, ExportFormat format, OutputStream out) throws IOException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        return switch (dataset) {
+            case "users" -> write(userMapper.scanAll(), USER_COLUMNS, format, out, deadline);
+            case "items" -> write(itemMapper.scanAll(), ITEM_COLUMNS, format, out, deadline);
+            case "orders" -> write(orderMapper.scanAll(), ORDER_COLUMNS, format, out, deadline);
+            default -> throw new IllegalArgumentException("不支持的导出数据：" + dataset);
+        };
+    }
+
+    private <T> long write(Cursor<T> cursor, List<Column<T>> columns, ExportFormat format, OutputStream out,
+                           long deadline) throws IOException {
+        try (cursor) {
+            return format == ExportFormat.CSV
+                    ? writeCsv(cursor, columns, out, deadline)
+                    : writeNdjson(cursor, columns, out, deadline);
+        }
+    }
+
+    // 每次刷新输出时检查；客户端读得太慢导致超时的话中止导出，关闭游标后连接归还连接池
+    private static void checkDeadline(long deadline) throws IOException {
+        if (System.nanoTime() - deadline > 0) {
+            throw new IOException("导出超时");
+        }
+    }
+
+    private <T> long writeNdjson(Cursor<T> cursor, List<Column<T>> columns, OutputStream out, long deadline)
+            throws IOException {
+        long rows = 0;
+        // 不让生成器关闭响应流，由调用方负责
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            for (T row : cursor) {
+                json.writeStartObject();
+                for (Column<T> column : columns) {
+                    json.writeObjectField(column.name(), column.getter().apply(row));
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+                if (++rows % FLUSH_ROWS == 0) {
+                    json.flush();
+                    checkDeadline(deadline);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private <T> long writeCsv(Cursor<T> cursor, List<Column<T>> columns, OutputStream out, long deadline)
+            throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write('\uFEFF'); // BOM，Excel 打开时按 UTF-8 识别中文
+        writeCsvLine(writer, columns.stream().map(Column::name).toList());
+        for (T row : cursor) {
+            writeCsvLine(writer, columns.stream().map(column -> column.getter().apply(row)).toList());
+            if (++rows % FLUSH_ROWS == 0) {
+                writer.flush();
+                checkDeadline(deadline);
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value instanceof CharSequence text) {
+                writer.write(escapeCsv(text.toString()));
+            } else if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // 文本字段：含逗号、引号或换行的用双引号包起来，内部引号写两次；
+    // 以 = + - @ 制表符或回车开头的会被 Excel 当成公式执行，前面加单引号并用双引号包起来
+    static String escapeCsv(String value) {
+        boolean formula = !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0;
+        if (!formula && value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + (formula ? "'" : "") + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -3,51 +3,94 @@ package com.xianyu.service.impl;
 import com.xianyu.dao.FavoriteMapper;
 import com.xianyu.entity.Favorite;
 import com.xianyu.entity.Item;
+import com.xianyu.event.FavoriteChangedEvent;
 import com.xianyu.service.FavoriteService;
+import com.xianyu.util.CursorPage;
+import com.xianyu.util.ImageUrls;
+import com.xianyu.util.PageCursor;
+import com.xianyu.vo.FavoriteItemVO;
 import com.xianyu.vo.FavoriteVO;
 import com.xianyu.vo.ItemVO;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-import static com.xianyu.service.impl.ItemServiceImpl.getItemVO;
+import static com.xianyu.service.impl.ItemServiceImpl.getListItemVO;
 
 @Service
 public class FavoriteServiceImpl implements FavoriteService {
 
     private final FavoriteMapper favoriteMapper;
+    private final FavoriteWriteBuffer writeBuffer;
+    private final ListingVersions listingVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public FavoriteServiceImpl(FavoriteMapper favoriteMapper) {
+    public FavoriteServiceImpl(FavoriteMapper favoriteMapper, FavoriteWriteBuffer writeBuffer,
+                               ListingVersions listingVersions, ApplicationEventPublisher eventPublisher) {
         this.favoriteMapper = favoriteMapper;
+        this.writeBuffer = writeBuffer;
+        this.listingVersions = listingVersions;
+        this.eventPublisher = eventPublisher;
     }
 
+    // 只改内存并排队，由 FavoriteWriteBuffer 批量落库；返回的 VO 没有收藏记录ID
     @Override
     public FavoriteVO addFavorite(Long userId, Long itemId) {
-        Favorite existing = favoriteMapper.find(userId, itemId).orElse(null);
-        if (existing != null) return toVO(existing);
+        boolean existed = writeBuffer.add(userId, itemId);
+        if (!existed) {
+            listingVersions.favoritesChanged(userId);
+            eventPublisher.publishEvent(new FavoriteChangedEvent(userId, itemId, true));
+        }
         Favorite favorite = new Favorite();
         favorite.setUserId(userId);
         favorite.setItemId(itemId);
-        favoriteMapper.insert(favorite);
+        favorite.setCreateTime(LocalDateTime.now());
         return toVO(favorite);
     }
 
     @Override
     public boolean removeFavorite(Long userId, Long itemId) {
-        return favoriteMapper.delete(userId, itemId) > 0;
+        boolean removed = writeBuffer.remove(userId, itemId);
+        if (removed) {
+            listingVersions.favoritesChanged(userId);
+            eventPublisher.publishEvent(new FavoriteChangedEvent(userId, itemId, false));
+        }
+        return removed;
     }
 
     @Override
     public List<FavoriteVO> listByUser(Long userId) {
+        writeBuffer.flushUser(userId);
         return favoriteMapper.listByUser(userId).stream().map(this::toVO).toList();
     }
 
+    @Override
+    public CursorPage<FavoriteItemVO> listPage(Long userId, String cursor, Integer size) {
+        writeBuffer.flushUser(userId);
+        int pageSize = PageCursor.normalizeSize(size);
+        List<FavoriteItemVO> rows = favoriteMapper.listByUserPage(userId, PageCursor.decode(cursor), pageSize + 1);
+        rows.forEach(row -> row.setThumbnailUrl(ImageUrls.thumbnailUrl(row.getImage(), ImageUrls.LIST_THUMBNAIL_WIDTH)));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<FavoriteItemVO> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, PageCursor.encode(items.get(pageSize - 1).getFavoriteId()));
+    }
+
     @Override
     public Optional<FavoriteVO> findByUserAndItem(Long userId, Long itemId) {
+        writeBuffer.flushUser(userId);
         return favoriteMapper.find(userId, itemId).map(this::toVO);
     }
 
+    @Override
+    public boolean isFavorited(Long userId, Long itemId) {
+        return writeBuffer.contains(userId, itemId);
+    }
+
     private FavoriteVO toVO(Favorite favorite) {
         FavoriteVO vo = new FavoriteVO();
         vo.setId(favorite.getId());
@@ -64,7 +107,7 @@ public class FavoriteServiceImpl implements FavoriteService {
     }
 
     private ItemVO toItemVO(Item item) {
-        return getItemVO(item);
+        return getListItemVO(item);
     }
 }
 
@@ -0,0 +1,333 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.dao.FavoriteMapper;
+import com.xianyu.entity.Favorite;
+import com.xianyu.util.LocalCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 收藏的内存视图 + 异步批量落库。
+ * 每个用户的收藏商品集合缓存在内存中，收藏/取消收藏先改内存并记入待写队列，
+ * 同一 (用户, 商品) 的多次操作只保留最后一次，由定时任务按批写入 favorite 表。
+ * 待写条目只有在写库成功后才移出队列，因此从库里加载用户集合时再叠加队列即可得到最新状态；
+ * 同一用户的加载与写库按用户串行，避免读库之后、叠加之前恰好有一批写入落库并移出队列。
+ * 写库失败的操作留在队列里继续计入容量，按用户指数退避重试，连续失败 MAX_ATTEMPTS 次后改为逐条写；
+ * 队列写满时收藏/取消收藏直接失败，而不是在内存里无限堆积。
+ */
+@Component
+public class FavoriteWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteWriteBuffer.class);
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long MIN_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    // 连续失败次数和下次允许定时任务重试的时间
+    private record Backoff(int failures, long retryAt) {
+    }
+
+    private final FavoriteMapper favoriteMapper;
+    private final int capacity;
+
+    private final LocalCache<Long, Set<Long>> userFavorites;
+    // userId -> (itemId -> true 收藏 / false 取消)
+    private final Map<Long, Map<Long, Boolean>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Map<Long, Backoff> backoffs = new ConcurrentHashMap<>();
+    private final UserGate gate = new UserGate(64);
+
+    public FavoriteWriteBuffer(FavoriteMapper favoriteMapper,
+                               @Value("${xianyu.favorite.buffer.capacity:10000}") int capacity,
+                               @Value("${xianyu.favorite.cache.max-users:50000}") int maxUsers) {
+        this.favoriteMapper = favoriteMapper;
+        this.capacity = capacity;
+        this.userFavorites = new LocalCache<>("user-favorites", maxUsers, 30, TimeUnit.MINUTES);
+    }
+
+    public boolean contains(Long userId, Long itemId) {
+        return favoritesOf(userId).contains(itemId);
+    }
+
+    // 返回操作前是否已收藏；队列已满且写不下去时抛 IllegalStateException
+    public boolean add(Long userId, Long itemId) {
+        reserveCapacity(userId);
+        Set<Long> favorites = favoritesOf(userId);
+        synchronized (favorites) {
+            boolean existed = !favorites.add(itemId);
+            if (!existed) {
+                enqueue(userId, itemId, true);
+            }
+            return existed;
+        }
+    }
+
+    // 返回操作前是否已收藏；队列已满且写不下去时抛 IllegalStateException
+    public boolean remove(Long userId, Long itemId) {
+        reserveCapacity(userId);
+        Set<Long> favorites = favoritesOf(userId);
+        synchronized (favorites) {
+            boolean existed = favorites.remove(itemId);
+            if (existed) {
+                enqueue(userId, itemId, false);
+            }
+            return existed;
+        }
+    }
+
+    // 跳过退避中和正被其它线程写库的用户
+    @Scheduled(fixedDelayString = "${xianyu.favorite.buffer.flush-interval-ms:500}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Long userId : pending.keySet()) {
+            Backoff backoff = backoffs.get(userId);
+            if (backoff != null && now < backoff.retryAt()) {
+                continue;
+            }
+            if (gate.tryEnter(userId)) {
+                try {
+                    write(userId);
+                } finally {
+                    gate.exit(userId);
+                }
+            }
+        }
+    }
+
+    // 读取用户收藏列表前调用，保证列表包含该用户尚未落库的操作
+    public void flushUser(Long userId) {
+        gate.enter(userId);
+        try {
+            write(userId);
+        } finally {
+            gate.exit(userId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Long userId : pending.keySet()) {
+            flushUser(userId);
+        }
+        if (pendingCount.get() > 0) {
+            log.error("停机时仍有 {} 条收藏操作未能落库", pendingCount.get());
+        }
+    }
+
+    // 调用方须已通过 gate 进入该用户
+    private void write(Long userId) {
+        Map<Long, Boolean> ops = pending.get(userId);
+        if (ops == null || ops.isEmpty()) {
+            return;
+        }
+        Map<Long, Boolean> snapshot = Map.copyOf(ops);
+        Backoff backoff = backoffs.get(userId);
+        if (backoff != null && backoff.failures() >= MAX_ATTEMPTS) {
+            writeOneByOne(userId, snapshot);
+            return;
+        }
+        List<Favorite> adds = new ArrayList<>();
+        List<Favorite> removes = new ArrayList<>();
+        snapshot.forEach((itemId, add) -> (add ? adds : removes).add(favorite(userId, itemId)));
+        try {
+            for (int i = 0; i < adds.size(); i += BATCH_SIZE) {
+                favoriteMapper.insertBatch(adds.subList(i, Math.min(i + BATCH_SIZE, adds.size())));
+            }
+            for (int i = 0; i < removes.size(); i += BATCH_SIZE) {
+                favoriteMapper.deleteBatch(removes.subList(i, Math.min(i + BATCH_SIZE, removes.size())));
+            }
+        } catch (RuntimeException e) {
+            Backoff next = fail(userId);
+            log.warn("收藏批量写入失败（第 {} 次），{} 条操作留在队列中，{} ms 后重试，userId={}",
+                    next.failures(), snapshot.size(), next.retryAt() - System.currentTimeMillis(), userId, e);
+            return;
+        }
+        backoffs.remove(userId);
+        dequeue(userId, snapshot);
+    }
+
+    // 批量写连续失败后逐条写，一条坏数据不会拖住同批的其它操作；写不进去的仍留在队列里
+    private void writeOneByOne(Long userId, Map<Long, Boolean> snapshot) {
+        Map<Long, Boolean> written = new HashMap<>();
+        RuntimeException failure = null;
+        for (Map.Entry<Long, Boolean> op : snapshot.entrySet()) {
+            List<Favorite> one = List.of(favorite(userId, op.getKey()));
+            try {
+                if (op.getValue()) {
+                    favoriteMapper.insertBatch(one);
+                } else {
+                    favoriteMapper.deleteBatch(one);
+                }
+                written.put(op.getKey(), op.getValue());
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        dequeue(userId, written);
+        if (failure == null) {
+            backoffs.remove(userId);
+            return;
+        }
+        Backoff next = fail(userId);
+        log.error("收藏逐条写入仍有 {} 条失败（连续第 {} 次），留在队列中，{} ms 后重试，userId={}",
+                snapshot.size() - written.size(), next.failures(), next.retryAt() - System.currentTimeMillis(),
+                userId, failure);
+    }
+
+    private Backoff fail(Long userId) {
+        return backoffs.compute(userId, (k, current) -> {
+            int failures = current == null ? 1 : current.failures() + 1;
+            long delay = Math.min(MIN_BACKOFF_MS << Math.min(failures - 1, 6), MAX_BACKOFF_MS);
+            return new Backoff(failures, System.currentTimeMillis() + delay);
+        });
+    }
+
+    private Set<Long> favoritesOf(Long userId) {
+        Set<Long> favorites = userFavorites.get(userId);
+        if (favorites == null) {
+            Set<Long> loaded = load(userId);
+            Set<Long> existing = userFavorites.putIfAbsent(userId, loaded);
+            favorites = existing != null ? existing : loaded;
+        }
+        return favorites;
+    }
+
+    // 与该用户的写库串行：读库和叠加之间不会有写入落库并移出队列，队列里的操作不会丢
+    private Set<Long> load(Long userId) {
+        gate.enter(userId);
+        try {
+            Set<Long> itemIds = ConcurrentHashMap.newKeySet();
+            itemIds.addAll(new HashSet<>(favoriteMapper.listItemIdsByUser(userId)));
+            Map<Long, Boolean> ops = pending.get(userId);
+            if (ops != null) {
+                ops.forEach((itemId, add) -> {
+                    if (add) {
+                        itemIds.add(itemId);
+                    } else {
+                        itemIds.remove(itemId);
+                    }
+                });
+            }
+            return itemIds;
+        } finally {
+            gate.exit(userId);
+        }
+    }
+
+    // 写库成功后移出队列；写库期间同一条目又被修改时 remove 不会成功，留给下一轮
+    private void dequeue(Long userId, Map<Long, Boolean> written) {
+        pending.computeIfPresent(userId, (k, current) -> {
+            written.forEach((itemId, add) -> {
+                if (current.remove(itemId, add)) {
+                    pendingCount.decrementAndGet();
+                }
+            });
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    private void enqueue(Long userId, Long itemId, boolean add) {
+        pending.compute(userId, (k, ops) -> {
+            Map<Long, Boolean> current = ops != null ? ops : new ConcurrentHashMap<>();
+            if (current.put(itemId, add) == null) {
+                pendingCount.incrementAndGet();
+            }
+            return current;
+        });
+    }
+
+    // 队列已满：先由当前请求线程同步写库腾出空间，仍然写不下去（数据库故障）时拒绝本次操作
+    private void reserveCapacity(Long userId) {
+        if (pendingCount.get() < capacity) {
+            return;
+        }
+        flushUser(userId);
+        if (pendingCount.get() >= capacity) {
+            flush();
+        }
+        if (pendingCount.get() >= capacity) {
+            throw new IllegalStateException("收藏操作过多，请稍后再试");
+        }
+    }
+
+    private static Favorite favorite(Long userId, Long itemId) {
+        Favorite favorite = new Favorite();
+        favorite.setUserId(userId);
+        favorite.setItemId(itemId);
+        return favorite;
+    }
+
+    /**
+     * 按用户串行化写库和加载。条纹锁只在登记/注销占用时短暂持有，读写数据库发生在锁外；
+     * 等待用 Condition 而不是 synchronized，虚拟线程阻塞时不会钉住载体线程。
+     */
+    private static final class UserGate {
+
+        private final ReentrantLock[] locks;
+        private final Condition[] released;
+        private final Set<Long> busy = ConcurrentHashMap.newKeySet();
+
+        UserGate(int stripes) {
+            locks = new ReentrantLock[stripes];
+            released = new Condition[stripes];
+            for (int i = 0; i < stripes; i++) {
+                locks[i] = new ReentrantLock();
+                released[i] = locks[i].newCondition();
+            }
+        }
+
+        void enter(Long userId) {
+            int stripe = stripe(userId);
+            locks[stripe].lock();
+            try {
+                while (!busy.add(userId)) {
+                    released[stripe].awaitUninterruptibly();
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        boolean tryEnter(Long userId) {
+            int stripe = stripe(userId);
+            locks[stripe].lock();
+            try {
+                return busy.add(userId);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        void exit(Long userId) {
+            int stripe = stripe(userId);
+            locks[stripe].lock();
+            try {
+                busy.remove(userId);
+                released[stripe].signalAll();
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        private int stripe(Long userId) {
+            return Math.floorMod(Long.hashCode(userId), locks.length);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.dto.ItemBrowseDTO;
+import com.xianyu.util.PageCursor;
+import com.xianyu.vo.BrowseResultVO;
+import com.xianyu.vo.ItemVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 在售商品的分面索引，维度为分类、成色、价格区间和地点。
+ * 每个维度取值维护一份商品 id 集合，多条件筛选按集合求交，计数随商品变更增量更新。
+ * 内容由 {@link OnSaleFeed} 推送，与首页快照使用同一份在售商品。
+ */
+@Component
+public class ItemFacetIndex implements OnSaleFeed.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemFacetIndex.class);
+
+    static final String CATEGORY = "category";
+    static final String CONDITIONS = "conditions";
+    static final String PRICE = "price";
+    static final String LOCATION = "location";
+
+    private static final String[] DIMENSIONS = {CATEGORY, CONDITIONS, PRICE, LOCATION};
+    private static final int PRICE_DIM = 2;
+
+    // 价格区间下界（含），最后一档没有上界
+    private static final BigDecimal[] PRICE_LOWER_BOUNDS = {
+            BigDecimal.ZERO, BigDecimal.valueOf(50), BigDecimal.valueOf(100), BigDecimal.valueOf(500), BigDecimal.valueOf(1000)
+    };
+    static final List<String> PRICE_BUCKETS = List.of("0-50", "50-100", "100-500", "500-1000", "1000+");
+
+    // values 按 DIMENSIONS 的顺序存放，null 表示该维度没有取值
+    private record Doc(ItemVO item, String[] values) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<Long, Doc> docs = new TreeMap<>(Comparator.reverseOrder());
+    private List<Map<String, Set<Long>>> postings = emptyPostings();
+
+    public BrowseResultVO browse(ItemBrowseDTO query) {
+        int size = PageCursor.normalizeSize(query.getSize());
+        int page = PageCursor.normalizePage(query.getPage());
+        String[] filters = {
+                normalize(query.getCategory()),
+                query.getConditions() == null ? null : query.getConditions().toString(),
+                normalize(query.getPrice()),
+                normalize(query.getLocation())
+        };
+
+        List<ItemVO> matched = new ArrayList<>();
+        List<Map<String, Integer>> counts = new ArrayList<>();
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            counts.add(new HashMap<>());
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> selected = new ArrayList<>();
+            int smallest = -1;
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                Set<Long> ids = filters[d] == null ? null : postings.get(d).getOrDefault(filters[d], Set.of());
+                selected.add(ids);
+                if (ids != null && (smallest < 0 || ids.size() < selected.get(smallest).size())) {
+                    smallest = d;
+                }
+            }
+
+            if (smallest < 0) {
+                // 没有筛选条件：计数就是各取值集合的大小，结果按 id 倒序直接分页
+                for (int d = 0; d < DIMENSIONS.length; d++) {
+                    Map<String, Integer> dimCounts = counts.get(d);
+                    postings.get(d).forEach((value, ids) -> dimCounts.put(value, ids.size()));
+                }
+                int from = PageCursor.offset(page, size, docs.size());
+                docs.values().stream().skip(from).limit(size).forEach(doc -> matched.add(doc.item()));
+                return result(docs.size(), page, size, matched, counts);
+            }
+
+            // 从最小的集合出发：全部命中的进结果；只差一个条件的，计入该维度的计数（分面计数不受自身筛选影响）
+            for (Long id : selected.get(smallest)) {
+                Doc doc = docs.get(id);
+                int failed = -1;
+                boolean skip = false;
+                for (int d = 0; d < DIMENSIONS.length && !skip; d++) {
+                    if (d != smallest && filters[d] != null && !filters[d].equals(doc.values()[d])) {
+                        skip = failed >= 0;
+                        failed = d;
+                    }
+                }
+                if (skip) {
+                    continue;
+                }
+                if (failed >= 0) {
+                    count(counts.get(failed), doc.values()[failed]);
+                    continue;
+                }
+                matched.add(doc.item());
+                for (int d = 0; d < DIMENSIONS.length; d++) {
+                    if (d != smallest) {
+                        count(counts.get(d), doc.values()[d]);
+                    }
+                }
+            }
+
+            // 最小集合所在维度的计数要放开它自身的条件，改从次小的集合出发
+            int second = -1;
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                if (d != smallest && selected.get(d) != null
+                        && (second < 0 || selected.get(d).size() < selected.get(second).size())) {
+                    second = d;
+                }
+            }
+            Map<String, Integer> smallestCounts = counts.get(smallest);
+            if (second < 0) {
+                postings.get(smallest).forEach((value, ids) -> smallestCounts.put(value, ids.size()));
+            } else {
+                for (Long id : selected.get(second)) {
+                    Doc doc = docs.get(id);
+                    if (matchesExcept(doc, filters, smallest)) {
+                        count(smallestCounts, doc.values()[smallest]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matched.sort(Comparator.comparing(ItemVO::getId, Comparator.reverseOrder()));
+        int total = matched.size();
+        int from = PageCursor.offset(page, size, total);
+        int to = Math.min(from + size, total);
+        return result(total, page, size, new ArrayList<>(matched.subList(from, to)), counts);
+    }
+
+    // 新索引在锁外建好，再整体替换，重建期间查询照常进行
+    @Override
+    public void onRebuilt(List<ItemVO> items) {
+        NavigableMap<Long, Doc> newDocs = new TreeMap<>(Comparator.reverseOrder());
+        List<Map<String, Set<Long>>> newPostings = emptyPostings();
+        for (ItemVO item : items) {
+            add(newDocs, newPostings, doc(item));
+        }
+        lock.writeLock().lock();
+        try {
+            docs = newDocs;
+            postings = newPostings;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("商品分面索引构建完成，共 {} 件在售商品", items.size());
+    }
+
+    @Override
+    public void onChanged(List<ItemVO> upserted, Set<Long> removed) {
+        List<Doc> added = upserted.stream().map(ItemFacetIndex::doc).toList();
+        lock.writeLock().lock();
+        try {
+            removed.forEach(this::removeLocked);
+            for (Doc doc : added) {
+                removeLocked(doc.item().getId());
+                add(docs, postings, doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Doc doc(ItemVO item) {
+        String[] values = {
+                normalize(item.getCategory()),
+                item.getConditions() == null ? null : item.getConditions().toString(),
+                priceBucket(item.getPrice()),
+                normalize(item.getLocation())
+        };
+        return new Doc(item, values);
+    }
+
+    private static void add(NavigableMap<Long, Doc> docs, List<Map<String, Set<Long>>> postings, Doc doc) {
+        Long id = doc.item().getId();
+        docs.put(id, doc);
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            if (doc.values()[d] != null) {
+                postings.get(d).computeIfAbsent(doc.values()[d], k -> new HashSet<>()).add(id);
+            }
+        }
+    }
+
+    private static List<Map<String, Set<Long>>> emptyPostings() {
+        List<Map<String, Set<Long>>> postings = new ArrayList<>();
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            postings.add(new HashMap<>());
+        }
+        return postings;
+    }
+
+    private void removeLocked(Long itemId) {
+        Doc old = docs.remove(itemId);
+        if (old == null) {
+            return;
+        }
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            String value = old.values()[d];
+            if (value == null) {
+                continue;
+            }
+            Set<Long> ids = postings.get(d).get(value);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.get(d).remove(value);
+                }
+            }
+        }
+    }
+
+    private static boolean matchesExcept(Doc doc, String[] filters, int except) {
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            if (d != except && filters[d] != null && !filters[d].equals(doc.values()[d])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void count(Map<String, Integer> counts, String value) {
+        if (value != null) {
+            counts.merge(value, 1, Integer::sum);
+        }
+    }
+
+    private static BrowseResultVO result(int total, int page, int size, List<ItemVO> items, List<Map<String, Integer>> counts) {
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            facets.put(DIMENSIONS[d], sorted(counts.get(d), d == PRICE_DIM));
+        }
+        BrowseResultVO result = new BrowseResultVO();
+        result.setTotal(total);
+        result.setPage(page);
+        result.setSize(size);
+        result.setItems(items);
+        result.setFacets(facets);
+        return result;
+    }
+
+    // 价格区间按档位顺序输出，其余维度按数量倒序
+    private static Map<String, Integer> sorted(Map<String, Integer> counts, boolean priceOrder) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        if (priceOrder) {
+            for (String bucket : PRICE_BUCKETS) {
+                sorted.put(bucket, counts.getOrDefault(bucket, 0));
+            }
+            return sorted;
+        }
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    static String priceBucket(BigDecimal price) {
+        if (price == null || price.signum() < 0) {
+            return null;
+        }
+        for (int i = PRICE_LOWER_BOUNDS.length - 1; i >= 0; i--) {
+            if (price.compareTo(PRICE_LOWER_BOUNDS[i]) >= 0) {
+                return PRICE_BUCKETS.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
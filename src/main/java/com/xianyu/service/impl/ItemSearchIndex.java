@@ -0,0 +1,240 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.dto.ItemSearchDTO;
+import com.xianyu.util.PageCursor;
+import com.xianyu.vo.ItemVO;
+import com.xianyu.vo.SearchResultVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 在售商品的内存倒排索引，覆盖名称、描述、分类和地点。
+ * 中文按单字 + 相邻双字切分，英文和数字按连续字母数字切分；查询按 BM25 打分排序。
+ * 内容由 {@link OnSaleFeed} 推送，与首页快照使用同一份在售商品。
+ */
+@Component
+public class ItemSearchIndex implements OnSaleFeed.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemSearchIndex.class);
+
+    // 字段权重：命中名称比命中描述更相关
+    private static final int WEIGHT_NAME = 3;
+    private static final int WEIGHT_CATEGORY = 2;
+    private static final int WEIGHT_LOCATION = 1;
+    private static final int WEIGHT_DESCRIPTION = 1;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private record Doc(ItemVO item, Map<String, Integer> termFreqs, int length) {
+    }
+
+    private record Hit(Doc doc, double score) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private Map<Long, Doc> docs = new HashMap<>();
+    private long totalLength;
+
+    public SearchResultVO search(ItemSearchDTO query) {
+        int size = PageCursor.normalizeSize(query.getSize());
+        int page = PageCursor.normalizePage(query.getPage());
+        Set<String> terms = new LinkedHashSet<>(tokenize(query.getQ(), true));
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty()) {
+                // 没有关键词时只按筛选条件过滤，最新发布的在前
+                for (Doc doc : docs.values()) {
+                    if (matches(doc.item(), query)) {
+                        hits.add(new Hit(doc, 0));
+                    }
+                }
+            } else {
+                Map<Long, Double> scores = new HashMap<>();
+                double avgLength = docs.isEmpty() ? 1 : (double) totalLength / docs.size();
+                for (String term : terms) {
+                    Map<Long, Integer> posting = postings.get(term);
+                    if (posting == null) {
+                        continue;
+                    }
+                    double idf = Math.log(1 + (docs.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+                    for (Map.Entry<Long, Integer> e : posting.entrySet()) {
+                        Doc doc = docs.get(e.getKey());
+                        if (!matches(doc.item(), query)) {
+                            continue;
+                        }
+                        int tf = e.getValue();
+                        double norm = K1 * (1 - B + B * doc.length() / avgLength);
+                        scores.merge(e.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                    }
+                }
+                scores.forEach((id, score) -> hits.add(new Hit(docs.get(id), score)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort((a, b) -> {
+            int byScore = Double.compare(b.score(), a.score());
+            return byScore != 0 ? byScore : Long.compare(b.doc().item().getId(), a.doc().item().getId());
+        });
+        int from = PageCursor.offset(page, size, hits.size());
+        int to = Math.min(from + size, hits.size());
+
+        SearchResultVO result = new SearchResultVO();
+        result.setTotal(hits.size());
+        result.setPage(page);
+        result.setSize(size);
+        result.setItems(hits.subList(from, to).stream().map(hit -> hit.doc().item()).toList());
+        return result;
+    }
+
+    // 新索引在锁外建好，再整体替换，重建期间查询照常进行
+    @Override
+    public void onRebuilt(List<ItemVO> items) {
+        Map<String, Map<Long, Integer>> newPostings = new HashMap<>();
+        Map<Long, Doc> newDocs = new HashMap<>();
+        long newLength = 0;
+        for (ItemVO item : items) {
+            newLength += add(newDocs, newPostings, doc(item));
+        }
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            docs = newDocs;
+            totalLength = newLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("商品搜索索引构建完成，共 {} 件在售商品", items.size());
+    }
+
+    @Override
+    public void onChanged(List<ItemVO> upserted, Set<Long> removed) {
+        List<Doc> added = upserted.stream().map(ItemSearchIndex::doc).toList();
+        lock.writeLock().lock();
+        try {
+            removed.forEach(this::removeLocked);
+            for (Doc doc : added) {
+                removeLocked(doc.item().getId());
+                totalLength += add(docs, postings, doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Doc doc(ItemVO item) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        addField(termFreqs, item.getName(), WEIGHT_NAME);
+        addField(termFreqs, item.getCategory(), WEIGHT_CATEGORY);
+        addField(termFreqs, item.getLocation(), WEIGHT_LOCATION);
+        addField(termFreqs, item.getDescription(), WEIGHT_DESCRIPTION);
+        int length = termFreqs.values().stream().mapToInt(Integer::intValue).sum();
+        return new Doc(item, termFreqs, length);
+    }
+
+    // 返回文档长度，由调用方累加到总长度
+    private static int add(Map<Long, Doc> docs, Map<String, Map<Long, Integer>> postings, Doc doc) {
+        Long id = doc.item().getId();
+        docs.put(id, doc);
+        doc.termFreqs().forEach((term, tf) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(id, tf));
+        return doc.length();
+    }
+
+    private void removeLocked(Long itemId) {
+        Doc old = docs.remove(itemId);
+        if (old == null) {
+            return;
+        }
+        totalLength -= old.length();
+        for (String term : old.termFreqs().keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(itemId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static boolean matches(ItemVO item, ItemSearchDTO query) {
+        BigDecimal price = item.getPrice();
+        if (query.getMinPrice() != null && (price == null || price.compareTo(query.getMinPrice()) < 0)) {
+            return false;
+        }
+        if (query.getMaxPrice() != null && (price == null || price.compareTo(query.getMaxPrice()) > 0)) {
+            return false;
+        }
+        return query.getConditions() == null || query.getConditions().equals(item.getConditions());
+    }
+
+    private static void addField(Map<String, Integer> termFreqs, String text, int weight) {
+        for (String term : tokenize(text, false)) {
+            termFreqs.merge(term, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * 切词：连续的汉字输出相邻双字（建索引时另外输出单字，查询时只有单个汉字才用单字），
+     * 连续的字母数字小写后作为一个词，其余字符视为分隔符。
+     */
+    static List<String> tokenize(String text, boolean forQuery) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < lower.length()) {
+            int cp = lower.codePointAt(i);
+            if (isHan(cp)) {
+                int start = i;
+                while (i < lower.length() && isHan(lower.codePointAt(i))) {
+                    i += Character.charCount(lower.codePointAt(i));
+                }
+                addHanRun(tokens, lower.substring(start, i), forQuery);
+            } else if (Character.isLetterOrDigit(cp)) {
+                int start = i;
+                while (i < lower.length() && !isHan(lower.codePointAt(i)) && Character.isLetterOrDigit(lower.codePointAt(i))) {
+                    i += Character.charCount(lower.codePointAt(i));
+                }
+                tokens.add(lower.substring(start, i));
+            } else {
+                i += Character.charCount(cp);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addHanRun(List<String> tokens, String run, boolean forQuery) {
+        int[] cps = run.codePoints().toArray();
+        if (cps.length == 1 || !forQuery) {
+            for (int cp : cps) {
+                tokens.add(new String(Character.toChars(cp)));
+            }
+        }
+        for (int j = 0; j + 1 < cps.length; j++) {
+            tokens.add(new String(cps, j, 2));
+        }
+    }
+
+    private static boolean isHan(int cp) {
+        return Character.UnicodeScript.of(cp) == Character.UnicodeScript.HAN;
+    }
+}
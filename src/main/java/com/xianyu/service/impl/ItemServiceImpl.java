@@ -1,21 +1,48 @@
 package com.xianyu.service.impl;
 
 import com.xianyu.dao.ItemMapper;
+import com.xianyu.dto.ItemBrowseDTO;
 import com.xianyu.dto.ItemDTO;
+import com.xianyu.dto.ItemSearchDTO;
 import com.xianyu.entity.Item;
+import com.xianyu.event.ItemChangedEvent;
 import com.xianyu.service.ItemService;
+import com.xianyu.util.CursorPage;
+import com.xianyu.util.ImageUrls;
+import com.xianyu.util.LocalCache;
+import com.xianyu.util.PageCursor;
+import com.xianyu.vo.BrowseResultVO;
 import com.xianyu.vo.ItemVO;
+import com.xianyu.vo.ReviewResultVO;
+import com.xianyu.vo.SearchResultVO;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ItemServiceImpl implements ItemService {
 
     private final ItemMapper itemMapper;
+    private final LocalCache<Long, Item> itemCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemSearchIndex searchIndex;
+    private final ItemFacetIndex facetIndex;
 
     // 商品状态常量
     private static final int STATUS_PENDING = 0;    // 待审核
@@ -24,8 +51,17 @@ public class ItemServiceImpl implements ItemService {
     private static final int STATUS_OFF_SALE = 3;   // 下架
     private static final int STATUS_REJECTED = 4;   // 审核驳回
 
-    public ItemServiceImpl(ItemMapper itemMapper) {
+    private static final int MAX_REVIEW_BATCH = 5000;
+    private static final int REVIEW_CHUNK_SIZE = 500;
+
+    public ItemServiceImpl(ItemMapper itemMapper, LocalCache<Long, Item> itemCache,
+                           ApplicationEventPublisher eventPublisher, ItemSearchIndex searchIndex,
+                           ItemFacetIndex facetIndex) {
         this.itemMapper = itemMapper;
+        this.itemCache = itemCache;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
     }
 
     @Override
@@ -43,43 +79,59 @@ public class ItemServiceImpl implements ItemService {
         item.setContactWay(dto.getContactWay());
         item.setLocation(dto.getLocation());
         item.setImageUrls(dto.getImageUrls());
+        item.setUpdateTime(now());
+        item.setVersion(0);
         itemMapper.insert(item);
-        return itemMapper.findById(item.getId()).map(this::toVO).orElseGet(() -> toVO(item));
+        itemCache.put(item.getId(), item);
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), ItemChangedEvent.Type.CREATED, item));
+        return toVO(item);
     }
 
     @Override
     public Optional<ItemVO> update(Long id, ItemDTO dto, Long ownerId) {
-        Item existing = itemMapper.findById(id).orElse(null);
+        // 缓存中的实体只读，变更写到新对象上
+        Item existing = itemCache.get(id, key -> itemMapper.findById(key).orElse(null));
         if (existing == null || (ownerId != null && !ownerId.equals(existing.getSellerId()))) {
             return Optional.empty();
         }
         validate(dto);
-        existing.setName(dto.getName());
-        existing.setDescription(dto.getDescription());
-        existing.setPrice(dto.getPrice());
-        if (dto.getOriginalPrice() != null) {
-            existing.setOriginalPrice(dto.getOriginalPrice());
-        }
-        if (dto.getCategory() != null) {
-            existing.setCategory(dto.getCategory());
-        }
-        if (dto.getConditions() != null) {
-            existing.setConditions(dto.getConditions());
-        }
-        if (dto.getStatus() != null) {
-            existing.setStatus(dto.getStatus());
+        int expectedVersion = dto.getVersion() != null ? dto.getVersion() : versionOf(existing);
+        if (expectedVersion != versionOf(existing)) {
+            throw new OptimisticLockingFailureException("商品已被修改，请刷新后重试");
         }
-        if (dto.getContactWay() != null) {
-            existing.setContactWay(dto.getContactWay());
+
+        Item changes = new Item();
+        changes.setName(changed(existing.getName(), dto.getName()));
+        changes.setDescription(changed(existing.getDescription(), dto.getDescription()));
+        changes.setPrice(changed(existing.getPrice(), dto.getPrice()));
+        changes.setOriginalPrice(changed(existing.getOriginalPrice(), dto.getOriginalPrice()));
+        changes.setCategory(changed(existing.getCategory(), dto.getCategory()));
+        changes.setConditions(changed(existing.getConditions(), dto.getConditions()));
+        changes.setStatus(changed(existing.getStatus(), dto.getStatus()));
+        // 已售出由下单占用、取消订单释放，卖家不能通过编辑改出或改入这个状态
+        if (changes.getStatus() != null
+                && (Objects.equals(existing.getStatus(), STATUS_SOLD) || changes.getStatus() == STATUS_SOLD)) {
+            throw new IllegalArgumentException("已售出的商品不能修改状态");
         }
-        if (dto.getLocation() != null) {
-            existing.setLocation(dto.getLocation());
+        changes.setContactWay(changed(existing.getContactWay(), dto.getContactWay()));
+        changes.setLocation(changed(existing.getLocation(), dto.getLocation()));
+        changes.setImageUrls(changed(existing.getImageUrls(), dto.getImageUrls()));
+        if (!hasChanges(changes)) {
+            return Optional.of(toVO(existing));
         }
-        if (dto.getImageUrls() != null) {
-            existing.setImageUrls(dto.getImageUrls());
+        changes.setUpdateTime(now());
+
+        if (itemMapper.updateChanged(id, expectedVersion, changes) == 0) {
+            itemCache.invalidate(id);
+            throw new OptimisticLockingFailureException("商品已被修改，请刷新后重试");
         }
-        itemMapper.update(existing);
-        return itemMapper.findById(id).map(this::toVO);
+        // 更新成功即可推出新状态，不必再查一次数据库
+        Item updated = merge(existing, changes);
+        updated.setVersion(expectedVersion + 1);
+        itemCache.put(id, updated);
+        eventPublisher.publishEvent(new ItemChangedEvent(id, ItemChangedEvent.Type.UPDATED, updated,
+                updated.getSellerId(), existing.getStatus(), updated.getStatus()));
+        return Optional.of(toVO(updated));
     }
 
     @Override
@@ -89,15 +141,31 @@ public class ItemServiceImpl implements ItemService {
             return false;
         }
         itemMapper.delete(id);
+        itemCache.invalidate(id);
+        eventPublisher.publishEvent(new ItemChangedEvent(id, ItemChangedEvent.Type.DELETED, null,
+                existing.getSellerId(), existing.getStatus(), null));
         return true;
     }
 
     @Override
     public Optional<ItemVO> findById(Long id) {
-        return itemMapper.findById(id).map(this::toVO);
+        // 缓存中的实体是共享的，只读不改；写路径总是从数据库重新读取后再回填
+        // 不走只读副本：加载结果会进缓存，从副本读到的旧数据会在缓存里留到过期
+        Item item = itemCache.get(id, key -> itemMapper.findById(key).orElse(null));
+        return Optional.ofNullable(item).map(ItemServiceImpl::getItemVO);
     }
 
     @Override
+    public Optional<Long> lastModified(Long id) {
+        Item item = itemCache.get(id, key -> itemMapper.findById(key).orElse(null));
+        if (item == null || item.getUpdateTime() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(item.getUpdateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ItemVO> listAll() {
         return itemMapper.findAll().stream().map(this::toVO).toList();
     }
@@ -114,8 +182,54 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    private static int versionOf(Item item) {
+        return item.getVersion() == null ? 0 : item.getVersion();
+    }
+
+    // 请求值为空或与当前值相同时返回 null，表示该列不需要更新
+    private static <T> T changed(T current, T requested) {
+        return requested == null || requested.equals(current) ? null : requested;
+    }
+
+    // BigDecimal 的 equals 比较精度，19.9 和 19.90 视为相同
+    private static BigDecimal changed(BigDecimal current, BigDecimal requested) {
+        return requested == null || (current != null && requested.compareTo(current) == 0) ? null : requested;
+    }
+
+    private static boolean hasChanges(Item changes) {
+        return changes.getName() != null || changes.getDescription() != null || changes.getPrice() != null
+                || changes.getOriginalPrice() != null || changes.getCategory() != null
+                || changes.getConditions() != null || changes.getStatus() != null
+                || changes.getContactWay() != null || changes.getLocation() != null
+                || changes.getImageUrls() != null;
+    }
+
+    private static Item merge(Item base, Item changes) {
+        Item item = new Item();
+        item.setId(base.getId());
+        item.setSellerId(base.getSellerId());
+        item.setName(changes.getName() != null ? changes.getName() : base.getName());
+        item.setDescription(changes.getDescription() != null ? changes.getDescription() : base.getDescription());
+        item.setPrice(changes.getPrice() != null ? changes.getPrice() : base.getPrice());
+        item.setOriginalPrice(changes.getOriginalPrice() != null ? changes.getOriginalPrice() : base.getOriginalPrice());
+        item.setCategory(changes.getCategory() != null ? changes.getCategory() : base.getCategory());
+        item.setConditions(changes.getConditions() != null ? changes.getConditions() : base.getConditions());
+        item.setStatus(changes.getStatus() != null ? changes.getStatus() : base.getStatus());
+        item.setContactWay(changes.getContactWay() != null ? changes.getContactWay() : base.getContactWay());
+        item.setLocation(changes.getLocation() != null ? changes.getLocation() : base.getLocation());
+        item.setImageUrls(changes.getImageUrls() != null ? changes.getImageUrls() : base.getImageUrls());
+        item.setUpdateTime(changes.getUpdateTime() != null ? changes.getUpdateTime() : base.getUpdateTime());
+        item.setVersion(base.getVersion());
+        return item;
+    }
+
+    // 与数据库 DATETIME(3) 精度一致，写回缓存的值和库里的一致
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
     private ItemVO toVO(Item item) {
-        return getItemVO(item);
+        return getListItemVO(item);
     }
 
     @NonNull
@@ -133,10 +247,23 @@ public class ItemServiceImpl implements ItemService {
         vo.setContactWay(item.getContactWay());
         vo.setLocation(item.getLocation());
         vo.setImageUrls(item.getImageUrls());
+        vo.setVersion(item.getVersion());
+        vo.setImages(ImageUrls.parse(item.getImageUrls()).stream().map(ImageUrls::fullUrl).toList());
+        vo.setThumbnailUrl(ImageUrls.firstThumbnailUrl(item.getImageUrls()));
+        return vo;
+    }
+
+    // 列表只带缩略图，不返回原图地址
+    @NonNull
+    public static ItemVO getListItemVO(Item item) {
+        ItemVO vo = getItemVO(item);
+        vo.setImageUrls(null);
+        vo.setImages(null);
         return vo;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemVO> listByOwnerId(Long ownerId) {
         List<Item> entities = itemMapper.findBySeller(ownerId);
 
@@ -154,18 +281,131 @@ public class ItemServiceImpl implements ItemService {
             return false;
         }
         // 不允许修改已售出商品的状态
-        if (existing.getStatus() != null && existing.getStatus() == STATUS_SOLD) {
+        if (existing.getStatus() == null || existing.getStatus() == STATUS_SOLD) {
+            return false;
+        }
+        // 以读到的状态为条件更新：期间被下单占用的话不会把已售出改回去
+        return compareAndSetStatus(id, existing.getStatus(), status);
+    }
+
+    @Override
+    public boolean reviewItem(Long id, Integer status) {
+        if (status == null || (status != STATUS_ON_SALE && status != STATUS_REJECTED)) {
             return false;
         }
-        // 更新状态
-        int updated = itemMapper.updateStatus(id, status);
-        return updated > 0;
+        // 只审核待审核的商品；已被订单占用或已售出的商品不能被重新上架
+        return compareAndSetStatus(id, STATUS_PENDING, status);
     }
 
     @Override
+    @Transactional
+    public List<ReviewResultVO> reviewItems(List<Long> ids, Integer status) {
+        if (status == null || (status != STATUS_ON_SALE && status != STATUS_REJECTED)) {
+            throw new IllegalArgumentException("审核状态无效");
+        }
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("商品ID不能为空");
+        }
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.size() > MAX_REVIEW_BATCH) {
+            throw new IllegalArgumentException("单次最多审核 " + MAX_REVIEW_BATCH + " 件商品");
+        }
+
+        // 每批先锁定仍处于待审核的行，再用一条 UPDATE 修改，整个请求在同一事务中
+        Map<Long, Item> reviewed = new HashMap<>();
+        for (int i = 0; i < distinctIds.size(); i += REVIEW_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(i, Math.min(i + REVIEW_CHUNK_SIZE, distinctIds.size()));
+            List<Item> pending = itemMapper.lockByStatus(chunk, STATUS_PENDING);
+            if (!pending.isEmpty()) {
+                List<Long> pendingIds = pending.stream().map(Item::getId).toList();
+                itemMapper.updateStatusBatch(pendingIds, STATUS_PENDING, status);
+                // 锁定读出的是整行，按 UPDATE 的结果补上新状态和版本，事件带上实体，监听方不必逐件回查
+                for (Item item : pending) {
+                    item.setStatus(status);
+                    item.setVersion(versionOf(item) + 1);
+                    reviewed.put(item.getId(), item);
+                }
+            }
+        }
+        invalidateAfterCommit(reviewed.keySet());
+
+        List<ReviewResultVO> results = new ArrayList<>(distinctIds.size());
+        for (Long id : distinctIds) {
+            Item item = reviewed.get(id);
+            if (item != null) {
+                eventPublisher.publishEvent(new ItemChangedEvent(id, ItemChangedEvent.Type.STATUS_CHANGED, item,
+                        item.getSellerId(), STATUS_PENDING, status));
+                results.add(new ReviewResultVO(id, true, "成功"));
+            } else {
+                results.add(new ReviewResultVO(id, false, "商品不存在或不是待审核状态"));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public boolean reserve(Long id) {
+        return compareAndSetStatus(id, STATUS_ON_SALE, STATUS_SOLD);
+    }
+
+    @Override
+    public boolean release(Long id) {
+        return compareAndSetStatus(id, STATUS_SOLD, STATUS_ON_SALE);
+    }
+
+    private boolean compareAndSetStatus(Long id, int expected, int status) {
+        if (itemMapper.compareAndSetStatus(id, expected, status) == 0) {
+            return false;
+        }
+        // 读回刚修改的行，卖家和新状态以库里为准；监听方拿到实体后不必再查库。
+        // 不在事务里时（如 reviewItem）这次读和上面的更新不是原子的，读到的可能已是之后的修改
+        Item item = itemMapper.findById(id).orElse(null);
+        invalidateAfterCommit(List.of(id));
+        eventPublisher.publishEvent(new ItemChangedEvent(id, ItemChangedEvent.Type.STATUS_CHANGED, item,
+                item == null ? null : item.getSellerId(), expected, status));
+        return true;
+    }
+
+    // 处在事务中时等提交后再清缓存：提交前清掉的话，并发读会把还没变的旧行重新加载进缓存并留到过期
+    private void invalidateAfterCommit(Collection<Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(itemCache::invalidate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(itemCache::invalidate);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ItemVO> listOnSale() {
         List<Item> items = itemMapper.findByStatus(STATUS_ON_SALE);
         return items.stream().map(this::toVO).toList();
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ItemVO> listPage(Integer status, String category, Long sellerId, String cursor, Integer size) {
+        int pageSize = PageCursor.normalizeSize(size);
+        // 多取一条用于判断是否还有下一页
+        List<Item> rows = itemMapper.findPage(status, category, sellerId, PageCursor.decode(cursor), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<ItemVO> items = (hasNext ? rows.subList(0, pageSize) : rows).stream().map(this::toVO).toList();
+        String nextCursor = hasNext ? PageCursor.encode(items.get(items.size() - 1).getId()) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    @Override
+    public SearchResultVO search(ItemSearchDTO query) {
+        return searchIndex.search(query != null ? query : new ItemSearchDTO());
+    }
+
+    @Override
+    public BrowseResultVO browse(ItemBrowseDTO query) {
+        return facetIndex.browse(query != null ? query : new ItemBrowseDTO());
+    }
+}
@@ -0,0 +1,50 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.event.ItemChangedEvent;
+import com.xianyu.util.LocalCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 列表的集合版本号，用作列表接口的 ETag。任何商品变更都让商品版本加一；
+ * 收藏列表另有按用户的版本，取自全局递增序列，缓存淘汰后重新取当前序列值，不会与旧值重复。
+ * 版本带上进程启动时间，重启后客户端缓存自然失效。
+ */
+@Component
+public class ListingVersions {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong itemVersion = new AtomicLong();
+    private final AtomicLong favoriteSequence = new AtomicLong();
+    private final LocalCache<Long, Long> favoriteVersions =
+            new LocalCache<>("favorite-versions", 100_000, 1, TimeUnit.HOURS);
+
+    // 调用方要先取版本再查询数据，保证返回的版本不会比数据新
+    public String items() {
+        return "items-" + epoch + "-" + itemVersion.get();
+    }
+
+    public String favorites(Long userId) {
+        Long version = favoriteVersions.get(userId);
+        if (version == null) {
+            // 用 putIfAbsent，避免覆盖并发写入的新版本
+            long current = favoriteSequence.get();
+            Long existing = favoriteVersions.putIfAbsent(userId, current);
+            version = existing != null ? existing : current;
+        }
+        return "favorites-" + epoch + "-" + itemVersion.get() + "-" + version;
+    }
+
+    public void favoritesChanged(Long userId) {
+        favoriteVersions.put(userId, favoriteSequence.incrementAndGet());
+    }
+
+    // 事务提交后才加一，读到新版本时一定能查到新数据
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        itemVersion.incrementAndGet();
+    }
+}
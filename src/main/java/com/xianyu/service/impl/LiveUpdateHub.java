@@ -0,0 +1,196 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.event.ItemChangedEvent;
+import com.xianyu.event.OrderChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 商品状态、订单变化的 SSE 推送。每个订阅者有一个有界队列，由各自的虚拟线程异步发送，
+ * 一个客户端的 TCP 窗口卡住只会阻塞它自己的发送线程，不影响其他订阅者。
+ * 队列写满或单次发送超过 send-timeout 都说明客户端消费太慢，直接断开，不阻塞发布方也不无限堆积。
+ */
+@Component
+public class LiveUpdateHub {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateHub.class);
+
+    record Message(String name, Object data) {
+    }
+
+    public record ItemMessage(Long itemId, String type, Integer status) {
+    }
+
+    public record OrderMessage(Long orderId, Long itemId, String type) {
+    }
+
+    private static final Message HEARTBEAT = new Message(null, null);
+
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long sendTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ExecutorService sender;
+
+    public LiveUpdateHub(@Value("${xianyu.live.max-subscribers:2000}") int maxSubscribers,
+                         @Value("${xianyu.live.buffer-size:64}") int bufferSize,
+                         @Value("${xianyu.live.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        // 每次排空队列一个虚拟线程，阻塞在 send 上的线程不占用平台线程
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("live-update-sender-", 0).factory());
+    }
+
+    // userId 为 null 表示未登录，只接收商品推送；返回 null 表示订阅数已满
+    public SseEmitter subscribe(Long userId, boolean admin) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(0L); // 不超时，靠心跳发现断开的连接
+        Subscriber subscriber = new Subscriber(emitter, userId, admin);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.offer(new Message("ready", "ok"));
+        return emitter;
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of("subscribers", subscribers.size(), "dropped", dropped.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        Message message = new Message("item",
+                new ItemMessage(event.getItemId(), event.getType().name(), event.getStatus()));
+        for (Subscriber subscriber : subscribers) {
+            // 新发布的商品处于待审核状态，只有管理员关心
+            if (event.getType() != ItemChangedEvent.Type.CREATED || subscriber.admin) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        Message message = new Message("order",
+                new OrderMessage(event.getOrderId(), event.getItemId(), event.getType().name()));
+        for (Subscriber subscriber : subscribers) {
+            if (event.getBuyerId().equals(subscriber.userId) || event.getSellerId().equals(subscriber.userId)) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    // 定时心跳，及时发现已断开的连接并回收
+    @Scheduled(fixedDelayString = "${xianyu.live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    // send 阻塞超过 send-timeout 的订阅者视为慢消费者，断开连接，卡住的发送线程随连接关闭退出
+    @Scheduled(fixedDelay = 1000)
+    public void disconnectStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                subscriber.disconnect();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        sender.shutdown();
+    }
+
+    private class Subscriber {
+
+        final SseEmitter emitter;
+        final Long userId;
+        final boolean admin;
+        final Queue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        // 当前这次 send 开始的时间，0 表示没有在发送
+        volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter, Long userId, boolean admin) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.admin = admin;
+        }
+
+        void offer(Message message) {
+            if (!queue.offer(message)) {
+                disconnect();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // 同一订阅者同一时刻只有一个线程在发送，保证消息顺序
+        void drain() {
+            try {
+                Message message;
+                while ((message = queue.poll()) != null) {
+                    sendingSince = System.nanoTime() | 1; // 保证非 0
+                    if (message == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(message.name()).data(message.data()));
+                    }
+                    sendingSince = 0;
+                }
+            } catch (Exception e) {
+                sendingSince = 0;
+                if (subscribers.remove(this)) {
+                    emitter.completeWithError(e);
+                }
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // 释放标记后可能又有新消息入队
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // 慢消费者：断开连接，客户端重连后重新加载页面数据
+        void disconnect() {
+            if (subscribers.remove(this)) {
+                dropped.incrementAndGet();
+                log.debug("断开推送过慢的订阅者 userId={}", userId);
+                emitter.complete();
+            }
+        }
+    }
+}
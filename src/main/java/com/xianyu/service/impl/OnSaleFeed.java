@@ -0,0 +1,198 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.dao.ItemMapper;
+import com.xianyu.entity.Item;
+import com.xianyu.event.ItemChangedEvent;
+import com.xianyu.util.CursorPage;
+import com.xianyu.util.PageCursor;
+import com.xianyu.vo.ItemVO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 首页在售商品快照。快照不可变，读取时直接拿 volatile 引用，无需加锁；
+ * 商品变更后由后台线程按变更的商品ID批量回查数据库，生成新版本快照后整体替换。
+ * 搜索、分面等派生索引通过 {@link Listener} 订阅同一份变更，不再各自监听商品事件、回查数据库。
+ */
+@Component
+public class OnSaleFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(OnSaleFeed.class);
+    private static final int STATUS_ON_SALE = 1;
+
+    public record Snapshot(long version, LocalDateTime builtAt, List<ItemVO> items) {
+    }
+
+    /**
+     * 在售商品的派生索引。回调都在刷新线程上依次执行，发生在新快照发布之后。
+     */
+    public interface Listener {
+
+        // 全量重建：items 为当前全部在售商品，按 id 倒序
+        void onRebuilt(List<ItemVO> items);
+
+        // 增量更新：upserted 为变更后仍在售的商品，removed 为不再在售（下架、售出、删除等）的商品 id
+        void onChanged(List<ItemVO> upserted, Set<Long> removed);
+    }
+
+    private final ItemMapper itemMapper;
+    private final List<Listener> listeners;
+
+    private volatile Snapshot current = new Snapshot(0, LocalDateTime.now(), List.of());
+    private final Set<Long> changedIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "on-sale-feed-refresher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public OnSaleFeed(ItemMapper itemMapper, List<Listener> listeners) {
+        this.itemMapper = itemMapper;
+        this.listeners = listeners;
+    }
+
+    public Snapshot current() {
+        return current;
+    }
+
+    // 按 id 查当前快照中的在售商品，不在售或不存在时返回 null
+    public ItemVO find(long id) {
+        List<ItemVO> items = current.items();
+        int index = firstIndexBelow(items, id + 1);
+        return index < items.size() && items.get(index).getId() == id ? items.get(index) : null;
+    }
+
+    public CursorPage<ItemVO> page(String cursor, Integer size) {
+        int pageSize = PageCursor.normalizeSize(size);
+        Long after = PageCursor.decode(cursor);
+        List<ItemVO> items = current.items();
+        int from = after == null ? 0 : firstIndexBelow(items, after);
+        int to = Math.min(from + pageSize, items.size());
+        List<ItemVO> pageItems = items.subList(from, to);
+        String nextCursor = to < items.size() ? PageCursor.encode(pageItems.get(pageItems.size() - 1).getId()) : null;
+        return new CursorPage<>(pageItems, nextCursor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialBuild() {
+        refresher.execute(this::rebuildAll);
+    }
+
+    // 事务提交后才触发；没有事务时立即触发
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getType() == ItemChangedEvent.Type.CREATED) {
+            return; // 新发布的商品处于待审核状态，不影响在售列表
+        }
+        changedIds.add(event.getItemId());
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.execute(this::applyChanges);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void rebuildAll() {
+        try {
+            List<ItemVO> items = itemMapper.findByStatus(STATUS_ON_SALE).stream()
+                    .map(ItemServiceImpl::getListItemVO)
+                    .toList();
+            publish(items);
+            listeners.forEach(listener -> rebuild(listener, items));
+        } catch (RuntimeException e) {
+            log.error("在售商品快照构建失败", e);
+        }
+    }
+
+    private void applyChanges() {
+        // 先清标记再取变更，处理期间新到的变更会再排一次任务
+        refreshScheduled.set(false);
+        Set<Long> ids = new HashSet<>();
+        for (Long id : changedIds) {
+            if (changedIds.remove(id)) {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            List<ItemVO> items = new ArrayList<>(current.items().size() + ids.size());
+            for (ItemVO vo : current.items()) {
+                if (!ids.contains(vo.getId())) {
+                    items.add(vo);
+                }
+            }
+            List<ItemVO> upserted = new ArrayList<>();
+            for (Item item : itemMapper.findByIds(ids)) {
+                if (item.getStatus() != null && item.getStatus() == STATUS_ON_SALE) {
+                    upserted.add(ItemServiceImpl.getListItemVO(item));
+                }
+            }
+            items.addAll(upserted);
+            items.sort(Comparator.comparing(ItemVO::getId).reversed());
+            publish(List.copyOf(items));
+
+            Set<Long> removed = new HashSet<>(ids);
+            upserted.forEach(vo -> removed.remove(vo.getId()));
+            for (Listener listener : listeners) {
+                try {
+                    listener.onChanged(upserted, removed);
+                } catch (RuntimeException e) {
+                    log.error("{} 增量更新失败，按当前快照重建", listener.getClass().getSimpleName(), e);
+                    rebuild(listener, current.items());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("在售商品快照增量更新失败，稍后全量重建", e);
+            refresher.execute(this::rebuildAll);
+        }
+    }
+
+    private void rebuild(Listener listener, List<ItemVO> items) {
+        try {
+            listener.onRebuilt(items);
+        } catch (RuntimeException e) {
+            log.error("{} 重建失败", listener.getClass().getSimpleName(), e);
+        }
+    }
+
+    private void publish(List<ItemVO> items) {
+        current = new Snapshot(current.version() + 1, LocalDateTime.now(), items);
+    }
+
+    // 列表按 id 倒序，二分查找第一个 id 小于游标的位置
+    private static int firstIndexBelow(List<ItemVO> items, long cursor) {
+        int lo = 0;
+        int hi = items.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (items.get(mid).getId() >= cursor) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,58 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定时自动取消超时未处理的订单并释放商品。按 (status, create_time) 索引分批扫描，
+ * 每批从上一批最后一条之后继续，取消失败的订单不会在同一轮里被反复取到、挡住后面的积压；
+ * 每轮最多处理 maxBatches 批，剩余的（包括失败的）留到下一轮从头再扫。
+ */
+@Component
+public class OrderExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryScheduler.class);
+
+    private final OrderService orderService;
+    private final long timeoutMinutes;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public OrderExpiryScheduler(OrderService orderService,
+                                @Value("${xianyu.order.expiry.timeout-minutes:1440}") long timeoutMinutes,
+                                @Value("${xianyu.order.expiry.batch-size:200}") int batchSize,
+                                @Value("${xianyu.order.expiry.max-batches:50}") int maxBatches) {
+        this.orderService = orderService;
+        this.timeoutMinutes = timeoutMinutes;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${xianyu.order.expiry.interval-ms:60000}")
+    public void expire() {
+        LocalDateTime createdBefore = LocalDateTime.now().minusMinutes(timeoutMinutes);
+        LocalDateTime afterCreateTime = null;
+        Long afterId = null;
+        int scanned = 0;
+        int expired = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            OrderService.ExpiryBatch batch = orderService.expirePendingOrders(createdBefore, afterCreateTime, afterId, batchSize);
+            scanned += batch.scanned();
+            expired += batch.expired();
+            if (batch.scanned() < batchSize) {
+                break;
+            }
+            afterCreateTime = batch.lastCreateTime();
+            afterId = batch.lastId();
+        }
+        if (scanned > 0) {
+            log.info("扫描超时订单 {} 条，自动取消 {} 条", scanned, expired);
+        }
+    }
+}
@@ -1,30 +1,75 @@
 package com.xianyu.service.impl;
 
 import com.xianyu.dao.ItemMapper;
+import com.xianyu.dao.OrderEventMapper;
 import com.xianyu.dao.OrderMapper;
 import com.xianyu.dao.UserMapper;
 import com.xianyu.dto.OrderCreateDTO;
 import com.xianyu.entity.Item;
 import com.xianyu.entity.Order;
+import com.xianyu.entity.OrderEvent;
+import com.xianyu.entity.User;
+import com.xianyu.event.OrderChangedEvent;
+import com.xianyu.service.ItemService;
 import com.xianyu.service.OrderService;
+import com.xianyu.util.CursorPage;
+import com.xianyu.util.LocalCache;
+import com.xianyu.util.PageCursor;
+import com.xianyu.vo.ItemVO;
+import com.xianyu.vo.OrderEventVO;
 import com.xianyu.vo.OrderVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
+
+    private static final int STATUS_PENDING = 0;    // 待处理
+    private static final int STATUS_FINISHED = 1;   // 已完成
+    private static final int STATUS_CANCELLED = 2;  // 已取消（含超时自动取消）
+
+    private static final int ITEM_STATUS_SOLD = 2;  // 商品已被订单占用或已售出
+
     private final OrderMapper orderMapper;
+    private final OrderEventMapper orderEventMapper;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
+    private final ItemService itemService;
+    private final TransactionOperations transactionOperations;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 已确认售出的商品，后来的买家直接失败，不再访问数据库；只是提示，真正的判断在条件更新里
+    private final LocalCache<Long, Boolean> soldItems = new LocalCache<>("sold-items", 100_000, 60, TimeUnit.SECONDS);
+    // 正在下单的商品，同一商品同一时刻只放一个请求去数据库抢
+    private final Set<Long> reserving = ConcurrentHashMap.newKeySet();
 
-    public OrderServiceImpl(OrderMapper orderMapper, ItemMapper itemMapper, UserMapper userMapper) {
+    public OrderServiceImpl(OrderMapper orderMapper, OrderEventMapper orderEventMapper,
+                            ItemMapper itemMapper, UserMapper userMapper,
+                            ItemService itemService, TransactionOperations transactionOperations,
+                            ApplicationEventPublisher eventPublisher) {
         this.orderMapper = orderMapper;
+        this.orderEventMapper = orderEventMapper;
         this.itemMapper = itemMapper;
         this.userMapper = userMapper;
+        this.itemService = itemService;
+        this.transactionOperations = transactionOperations;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -36,20 +81,50 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalArgumentException("买家ID不能为空");
         }
 
-        Item item = itemMapper.findById(dto.getItemId())
+        Long itemId = dto.getItemId();
+        if (soldItems.get(itemId) != null) {
+            throw new IllegalArgumentException("商品已售出");
+        }
+
+        ItemVO item = itemService.findById(itemId)
                 .orElseThrow(() -> new IllegalArgumentException("商品未找到"));
 
-        if (item.getSellerId().equals(buyerId)) {
+        if (item.getOwnerId().equals(buyerId)) {
             throw new IllegalArgumentException("不能购买自己的商品");
         }
+        if (item.getStatus() == null || item.getStatus() != 1) {
+            throw new IllegalArgumentException("商品不可购买");
+        }
 
+        if (!reserving.add(itemId)) {
+            throw new IllegalArgumentException("商品正在被其他买家下单，请稍后再试");
+        }
         Order order = new Order();
-        order.setItemId(item.getId());
-        order.setBuyerId(buyerId);
-        order.setSellerId(item.getSellerId());
-        order.setItemPrice(item.getPrice());
-        order.setStatus(0);
-        orderMapper.insert(order);
+        try {
+            // 条件更新 status 1 -> 2 与插入订单在同一事务中，只有一个买家能成功
+            transactionOperations.executeWithoutResult(tx -> {
+                if (!itemService.reserve(itemId)) {
+                    // 占用失败的原因不止已售出（待审核、已下架、缓存里的状态过期），只有库里确实是已售出才记下
+                    Integer status = itemMapper.findById(itemId).map(Item::getStatus).orElse(null);
+                    if (status != null && status == ITEM_STATUS_SOLD) {
+                        soldItems.put(itemId, Boolean.TRUE);
+                        throw new IllegalArgumentException("商品已售出");
+                    }
+                    throw new IllegalArgumentException("商品不可购买");
+                }
+                order.setItemId(itemId);
+                order.setBuyerId(buyerId);
+                order.setSellerId(item.getOwnerId());
+                order.setItemPrice(item.getPrice());
+                order.setStatus(STATUS_PENDING);
+                orderMapper.insert(order);
+                orderEventMapper.insert(new OrderEvent(order.getId(), null, STATUS_PENDING, "CREATED", buyerId));
+            });
+            soldItems.put(itemId, Boolean.TRUE);
+        } finally {
+            reserving.remove(itemId);
+        }
+        publish(order, OrderChangedEvent.Type.CREATED);
 
         return orderMapper.findById(order.getId()).map(this::toVO).orElseGet(() -> toVO(order));
     }
@@ -65,15 +140,12 @@ public class OrderServiceImpl implements OrderService {
             return Optional.empty();
         }
 
-        if (order.getStatus() != 0) {
+        if (order.getStatus() != STATUS_PENDING || !transition(order, STATUS_FINISHED, "FINISHED", userId)) {
             return Optional.empty();
         }
+        publish(order, OrderChangedEvent.Type.FINISHED);
 
-        order.setStatus(1);
-        order.setFinishTime(LocalDateTime.now());
-        orderMapper.update(order);
-
-        return orderMapper.findById(orderId).map(this::toVO);
+        return Optional.of(toVO(order));
     }
 
     @Override
@@ -87,33 +159,145 @@ public class OrderServiceImpl implements OrderService {
             return Optional.empty();
         }
 
-        if (order.getStatus() != 0) {
+        if (order.getStatus() != STATUS_PENDING || !transition(order, STATUS_CANCELLED, "CANCELLED", userId)) {
             return Optional.empty();
         }
+        publish(order, OrderChangedEvent.Type.CANCELLED);
 
-        order.setStatus(2);
-        order.setFinishTime(LocalDateTime.now());
-        orderMapper.update(order);
+        return Optional.of(toVO(order));
+    }
 
-        return orderMapper.findById(orderId).map(this::toVO);
+    @Override
+    public ExpiryBatch expirePendingOrders(LocalDateTime createdBefore, LocalDateTime afterCreateTime, Long afterId,
+                                           int batchSize) {
+        List<Order> stale = orderMapper.findByStatusCreatedBefore(STATUS_PENDING, createdBefore,
+                afterCreateTime, afterId, batchSize);
+        int expired = 0;
+        for (Order order : stale) {
+            try {
+                if (transition(order, STATUS_CANCELLED, "EXPIRED", null)) {
+                    publish(order, OrderChangedEvent.Type.EXPIRED);
+                    expired++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("超时订单自动取消失败 orderId={}", order.getId(), e);
+            }
+        }
+        if (stale.isEmpty()) {
+            return new ExpiryBatch(0, 0, afterCreateTime, afterId);
+        }
+        Order last = stale.get(stale.size() - 1);
+        return new ExpiryBatch(stale.size(), expired, last.getCreateTime(), last.getId());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<List<OrderEventVO>> listEvents(Long orderId, Long userId) {
+        Order order = orderMapper.findById(orderId).orElse(null);
+        if (order == null || (!order.getSellerId().equals(userId) && !order.getBuyerId().equals(userId))) {
+            return Optional.empty();
+        }
+        return Optional.of(orderEventMapper.findByOrder(orderId).stream().map(this::toEventVO).toList());
+    }
+
+    // 待处理订单的状态流转：条件更新、记录流转、取消时释放商品，三者在同一事务中。
+    // 返回 false 表示订单已被其他请求处理
+    private boolean transition(Order order, int status, String reason, Long operatorId) {
+        LocalDateTime now = LocalDateTime.now();
+        Boolean changed = transactionOperations.execute(tx -> {
+            if (orderMapper.compareAndSetStatus(order.getId(), STATUS_PENDING, status, now) == 0) {
+                return false;
+            }
+            orderEventMapper.insert(new OrderEvent(order.getId(), STATUS_PENDING, status, reason, operatorId));
+            if (status == STATUS_CANCELLED) {
+                itemService.release(order.getItemId());   // 释放商品，重新上架
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(changed)) {
+            return false;
+        }
+        order.setStatus(status);
+        order.setFinishTime(now);
+        if (status == STATUS_CANCELLED) {
+            soldItems.invalidate(order.getItemId());
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<OrderVO> findById(Long orderId) {
         return orderMapper.findById(orderId).map(this::toVO);
     }
 
     @Override
-    public List<OrderVO> listByBuyer(Long buyerId) {
-        return orderMapper.findByBuyer(buyerId).stream().map(this::toVO).toList();
+    @Transactional(readOnly = true)
+    public CursorPage<OrderVO> listByBuyer(Long buyerId, Integer status, String cursor, Integer size) {
+        int pageSize = PageCursor.normalizeSize(size);
+        // 多取一条用于判断是否还有下一页
+        return toPage(orderMapper.findPageByBuyer(buyerId, status, PageCursor.decode(cursor), pageSize + 1), pageSize);
     }
 
     @Override
-    public List<OrderVO> listBySeller(Long sellerId) {
-        return orderMapper.findBySeller(sellerId).stream().map(this::toVO).toList();
+    @Transactional(readOnly = true)
+    public CursorPage<OrderVO> listBySeller(Long sellerId, Integer status, String cursor, Integer size) {
+        int pageSize = PageCursor.normalizeSize(size);
+        return toPage(orderMapper.findPageBySeller(sellerId, status, PageCursor.decode(cursor), pageSize + 1), pageSize);
+    }
+
+    private void publish(Order order, OrderChangedEvent.Type type) {
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getId(), order.getItemId(),
+                order.getBuyerId(), order.getSellerId(), order.getItemPrice(), type));
+    }
+
+    private CursorPage<OrderVO> toPage(List<Order> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<Order> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? PageCursor.encode(page.get(pageSize - 1).getId()) : null;
+        return new CursorPage<>(toVOs(page), nextCursor);
+    }
+
+    private OrderEventVO toEventVO(OrderEvent event) {
+        OrderEventVO vo = new OrderEventVO();
+        vo.setFromStatus(event.getFromStatus());
+        vo.setToStatus(event.getToStatus());
+        vo.setReason(event.getReason());
+        vo.setOperatorId(event.getOperatorId());
+        vo.setCreateTime(event.getCreateTime());
+        return vo;
     }
 
     private OrderVO toVO(Order order) {
+        return toVOs(List.of(order)).get(0);
+    }
+
+    // 批量转换：商品名、买卖双方用户名各用一条 IN 查询取回，避免每个订单单独查库
+    private List<OrderVO> toVOs(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> itemIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (Order order : orders) {
+            itemIds.add(order.getItemId());
+            userIds.add(order.getBuyerId());
+            userIds.add(order.getSellerId());
+        }
+
+        Map<Long, String> itemNames = new HashMap<>();
+        for (Item item : itemMapper.findByIds(itemIds)) {
+            itemNames.put(item.getId(), item.getName());
+        }
+        Map<Long, String> userNames = new HashMap<>();
+        for (User user : userMapper.findByIds(userIds)) {
+            userNames.put(user.getId(), user.getUsername());
+        }
+
+        return orders.stream().map(order -> toVO(order, itemNames, userNames)).toList();
+    }
+
+    private OrderVO toVO(Order order, Map<Long, String> itemNames, Map<Long, String> userNames) {
         OrderVO vo = new OrderVO();
         vo.setId(order.getId());
         vo.setItemId(order.getItemId());
@@ -123,19 +307,9 @@ public class OrderServiceImpl implements OrderService {
         vo.setStatus(order.getStatus());
         vo.setCreateTime(order.getCreateTime());
         vo.setFinishTime(order.getFinishTime());
-
-        itemMapper.findById(order.getItemId()).ifPresent(item -> {
-            vo.setItemName(item.getTitle());
-        });
-
-        userMapper.findById(order.getBuyerId()).ifPresent(buyer -> {
-            vo.setBuyerName(buyer.getUsername());
-        });
-
-        userMapper.findById(order.getSellerId()).ifPresent(seller -> {
-            vo.setSellerName(seller.getUsername());
-        });
-
+        vo.setItemName(itemNames.get(order.getItemId()));
+        vo.setBuyerName(userNames.get(order.getBuyerId()));
+        vo.setSellerName(userNames.get(order.getSellerId()));
         return vo;
     }
 }
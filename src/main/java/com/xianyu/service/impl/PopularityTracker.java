@@ -0,0 +1,293 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.dao.ItemPopularityMapper;
+import com.xianyu.entity.ItemPopularity;
+import com.xianyu.event.FavoriteChangedEvent;
+import com.xianyu.event.ItemChangedEvent;
+import com.xianyu.vo.ItemVO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 商品热度：浏览和收藏先计入每件商品的 LongAdder（分段计数、无锁），
+ * 定时任务把增量折算进按半衰期衰减的热度、批量写库，并增量维护热度前 K 名的小顶堆。
+ * <p>
+ * 衰减用"前向衰减"：第 t 时刻的一次行为记为 2^((t - landmark) / halfLife) 分，
+ * 所有商品同时衰减不改变相对顺序，所以堆里只需调整本轮有新增的商品；
+ * 当前热度 = 累计值 / 2^((now - landmark) / halfLife)。
+ */
+@Component
+public class PopularityTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularityTracker.class);
+
+    private static final int STATUS_ON_SALE = 1;
+
+    private static final double WEIGHT_VIEW = 1.0;
+    private static final double WEIGHT_FAVORITE = 5.0;
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+    // 放大倍数超过 2^512 前把基准时间挪到当前，避免 double 溢出
+    private static final double MAX_EXPONENT = 512;
+    // 衰减到这个热度以下、又没有新增的计数器会被回收
+    private static final double MIN_SCORE = 0.01;
+
+    public record Trending(long itemId, double score) {
+    }
+
+    private static final class Counter {
+        final long itemId;
+        final LongAdder views = new LongAdder();
+        final LongAdder favorites = new LongAdder();
+        final AtomicBoolean dirty = new AtomicBoolean();
+        // 以下字段只由定时任务读写
+        double weight;
+        boolean inHeap;
+
+        Counter(long itemId) {
+            this.itemId = itemId;
+        }
+    }
+
+    private final ItemPopularityMapper popularityMapper;
+    private final OnSaleFeed onSaleFeed;
+    private final long halfLifeMillis;
+    private final int capacity;
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Counter> dirtyQueue = new ConcurrentLinkedQueue<>();
+    private final Set<Long> offSale = ConcurrentHashMap.newKeySet();
+
+    private final PriorityQueue<Counter> heap = new PriorityQueue<>(Comparator.comparingDouble(c -> c.weight));
+    private long landmark = System.currentTimeMillis();
+
+    private volatile List<Trending> trending = List.of();
+
+    public PopularityTracker(ItemPopularityMapper popularityMapper, OnSaleFeed onSaleFeed,
+                             @Value("${xianyu.trending.half-life-minutes:60}") long halfLifeMinutes,
+                             @Value("${xianyu.trending.capacity:100}") int capacity) {
+        this.popularityMapper = popularityMapper;
+        this.onSaleFeed = onSaleFeed;
+        this.halfLifeMillis = Duration.ofMinutes(halfLifeMinutes).toMillis();
+        this.capacity = capacity;
+    }
+
+    public void recordView(Long itemId) {
+        Counter counter = counter(itemId);
+        counter.views.increment();
+        markDirty(counter);
+    }
+
+    public void recordFavorite(Long itemId) {
+        Counter counter = counter(itemId);
+        counter.favorites.increment();
+        markDirty(counter);
+    }
+
+    // 热度从高到低的在售商品，已下架或售出的跳过
+    public List<ItemVO> trending(int limit) {
+        List<ItemVO> items = new ArrayList<>(limit);
+        for (Trending entry : trending) {
+            if (items.size() >= limit) {
+                break;
+            }
+            ItemVO item = onSaleFeed.find(entry.itemId());
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    // 上一轮计算时的前 K 名及热度
+    public List<Trending> snapshot() {
+        return trending;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        if (event.isAdded()) {
+            recordFavorite(event.getItemId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getType() == ItemChangedEvent.Type.DELETED
+                || (event.getStatus() != null && event.getStatus() != STATUS_ON_SALE)) {
+            offSale.add(event.getItemId());
+        }
+    }
+
+    // 启动时从库里恢复热度，按写入后经过的时间衰减
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long now = System.currentTimeMillis();
+        for (ItemPopularity row : popularityMapper.findTop(capacity * 4)) {
+            long written = row.getUpdateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            double score = row.getScore() * Math.pow(2, -(double) Math.max(0, now - written) / halfLifeMillis);
+            Counter counter = counter(row.getItemId());
+            removeFromHeap(counter);
+            counter.weight = score * forward(now);
+            offerToHeap(counter);
+        }
+        publish(now);
+        log.info("商品热度恢复完成，{} 件商品", counters.size());
+    }
+
+    @Scheduled(fixedDelayString = "${xianyu.trending.flush-interval-ms:60000}")
+    public synchronized void tick() {
+        long now = System.currentTimeMillis();
+        if ((now - landmark) / (double) halfLifeMillis > MAX_EXPONENT) {
+            renormalize(now);
+        }
+        double scale = forward(now);
+        LocalDateTime updateTime = LocalDateTime.now();
+
+        List<ItemPopularity> rows = new ArrayList<>();
+        Counter counter;
+        while ((counter = dirtyQueue.poll()) != null) {
+            // 先清标记再取数，取数之后到达的增量会让计数器重新入队
+            counter.dirty.set(false);
+            long views = counter.views.sumThenReset();
+            long favorites = counter.favorites.sumThenReset();
+            if (views == 0 && favorites == 0) {
+                continue;
+            }
+            removeFromHeap(counter);
+            counter.weight += (views * WEIGHT_VIEW + favorites * WEIGHT_FAVORITE) * scale;
+            offerToHeap(counter);
+            rows.add(row(counter, views, favorites, scale, updateTime));
+        }
+
+        boolean refill = false;
+        for (Long itemId : offSale) {
+            offSale.remove(itemId);
+            Counter removed = counters.remove(itemId);
+            if (removed != null && removed.inHeap) {
+                heap.remove(removed);
+                removed.inHeap = false;
+                refill = true;
+            }
+        }
+        evictCold(scale);
+        if (refill) {
+            refill();
+        }
+        publish(now);
+        save(rows);
+    }
+
+    // 停机前把还没落库的增量写掉
+    @PreDestroy
+    public void shutdown() {
+        tick();
+    }
+
+    private Counter counter(Long itemId) {
+        Counter counter = counters.get(itemId);
+        return counter != null ? counter : counters.computeIfAbsent(itemId, Counter::new);
+    }
+
+    private void markDirty(Counter counter) {
+        if (!counter.dirty.get() && counter.dirty.compareAndSet(false, true)) {
+            dirtyQueue.offer(counter);
+        }
+    }
+
+    private void removeFromHeap(Counter counter) {
+        if (counter.inHeap) {
+            heap.remove(counter);
+            counter.inHeap = false;
+        }
+    }
+
+    // 堆未满直接放入，满了只在比堆顶（当前第 K 名）更热时替换
+    private void offerToHeap(Counter counter) {
+        if (heap.size() < capacity) {
+            heap.offer(counter);
+            counter.inHeap = true;
+        } else if (counter.weight > heap.peek().weight) {
+            heap.poll().inHeap = false;
+            heap.offer(counter);
+            counter.inHeap = true;
+        }
+    }
+
+    // 堆里的商品被移除后，剩下的候选可能在堆外，需要全量补齐
+    private void refill() {
+        heap.forEach(c -> c.inHeap = false);
+        heap.clear();
+        counters.values().forEach(this::offerToHeap);
+    }
+
+    // 回收热度已衰减到可以忽略的计数器；被回收时恰好到达的一两次计数会丢失，热度本身就是近似值
+    private void evictCold(double scale) {
+        for (Counter counter : counters.values()) {
+            if (!counter.inHeap && !counter.dirty.get() && counter.weight / scale < MIN_SCORE) {
+                counters.remove(counter.itemId, counter);
+            }
+        }
+    }
+
+    // 所有累计值同除一个数，相对顺序不变，堆不需要调整
+    private void renormalize(long now) {
+        double scale = forward(now);
+        counters.values().forEach(c -> c.weight /= scale);
+        landmark = now;
+    }
+
+    private void publish(long now) {
+        double scale = forward(now);
+        trending = heap.stream()
+                .sorted(Comparator.comparingDouble((Counter c) -> c.weight).reversed())
+                .map(c -> new Trending(c.itemId, c.weight / scale))
+                .toList();
+    }
+
+    private void save(List<ItemPopularity> rows) {
+        for (int from = 0; from < rows.size(); from += FLUSH_BATCH_SIZE) {
+            List<ItemPopularity> batch = rows.subList(from, Math.min(from + FLUSH_BATCH_SIZE, rows.size()));
+            try {
+                popularityMapper.upsertBatch(batch);
+            } catch (RuntimeException e) {
+                // 内存里的热度已经更新，只丢失这一批累计次数，不重试
+                log.warn("商品热度写库失败，{} 条：{}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    private ItemPopularity row(Counter counter, long views, long favorites, double scale, LocalDateTime updateTime) {
+        ItemPopularity row = new ItemPopularity();
+        row.setItemId(counter.itemId);
+        row.setViewCount(views);
+        row.setFavoriteCount(favorites);
+        row.setScore(counter.weight / scale);
+        row.setUpdateTime(updateTime);
+        return row;
+    }
+
+    private double forward(long time) {
+        return Math.pow(2, (time - landmark) / (double) halfLifeMillis);
+    }
+}
@@ -0,0 +1,217 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.dao.SellerStatsMapper;
+import com.xianyu.event.FavoriteChangedEvent;
+import com.xianyu.event.ItemChangedEvent;
+import com.xianyu.event.OrderChangedEvent;
+import com.xianyu.service.ItemService;
+import com.xianyu.service.SellerStatsService;
+import com.xianyu.util.LocalCache;
+import com.xianyu.vo.ItemVO;
+import com.xianyu.vo.SellerStatsVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 卖家统计。首次查询时用 SQL 汇总加载，之后由商品、订单、收藏的变更事件增量维护；
+ * 加载与增量之间可能丢失少量变更，由定时校准按 SQL 汇总覆盖修正。
+ * 校准只针对最近一个周期内被查询过的卖家，每轮最多 reconcileBatch 个、最久未校准的优先；
+ * 没人查询的卖家直接移出缓存，下次查询时重新汇总，不为它们跑汇总 SQL。
+ */
+@Service
+public class SellerStatsServiceImpl implements SellerStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SellerStatsServiceImpl.class);
+
+    private static final int ORDER_OPEN = 0;
+    private static final int ORDER_FINISHED = 1;
+    private static final int ORDER_CANCELLED = 2;
+
+    private final SellerStatsMapper sellerStatsMapper;
+    private final ItemService itemService;
+    private final LocalCache<Long, Counters> counters;
+    private final long reconcileMillis;
+    private final int reconcileBatch;
+
+    public SellerStatsServiceImpl(SellerStatsMapper sellerStatsMapper, ItemService itemService,
+                                  @Value("${xianyu.stats.max-sellers:10000}") int maxSellers,
+                                  @Value("${xianyu.stats.reconcile-ms:300000}") long reconcileMillis,
+                                  @Value("${xianyu.stats.reconcile-batch:200}") int reconcileBatch) {
+        this.sellerStatsMapper = sellerStatsMapper;
+        this.itemService = itemService;
+        this.counters = new LocalCache<>("seller-stats", maxSellers, 1, TimeUnit.HOURS);
+        this.reconcileMillis = reconcileMillis;
+        this.reconcileBatch = reconcileBatch;
+    }
+
+    @Override
+    public SellerStatsVO getStats(Long sellerId) {
+        Counters current = counters.get(sellerId);
+        if (current == null) {
+            Counters loaded = load(sellerId);
+            Counters existing = counters.putIfAbsent(sellerId, loaded);
+            current = existing != null ? existing : loaded;
+        }
+        current.lastReadAt = System.currentTimeMillis();
+        return current.toVO(sellerId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        Long sellerId = event.getSellerId() != null ? event.getSellerId() : sellerOf(event.getItemId());
+        if (sellerId == null) {
+            return;
+        }
+        Counters c = counters.get(sellerId);
+        if (c == null) {
+            return; // 未加载的卖家，首次查询时按 SQL 汇总
+        }
+        switch (event.getType()) {
+            case CREATED -> c.moveItem(null, event.getStatus());
+            case DELETED -> c.moveItem(event.getPreviousStatus(), null);
+            default -> {
+                if (event.getPreviousStatus() == null) {
+                    counters.invalidate(sellerId); // 变更前状态未知，下次查询重新汇总
+                } else {
+                    c.moveItem(event.getPreviousStatus(), event.getStatus());
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        Counters c = counters.get(event.getSellerId());
+        if (c == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED -> c.moveOrder(null, ORDER_OPEN, null);
+            case FINISHED -> c.moveOrder(ORDER_OPEN, ORDER_FINISHED, event.getItemPrice());
+            case CANCELLED, EXPIRED -> c.moveOrder(ORDER_OPEN, ORDER_CANCELLED, null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        Long sellerId = sellerOf(event.getItemId());
+        Counters c = sellerId == null ? null : counters.get(sellerId);
+        if (c != null) {
+            c.addFavorites(event.isAdded() ? 1 : -1);
+        }
+    }
+
+    // 定时按 SQL 汇总校准最近被查询过的卖家，每轮条数有上限，定时线程不会被几万次汇总占住
+    @Scheduled(fixedDelayString = "${xianyu.stats.reconcile-ms:300000}")
+    public void reconcile() {
+        long readSince = System.currentTimeMillis() - reconcileMillis;
+        List<Map.Entry<Long, Counters>> recent = new ArrayList<>();
+        for (Long sellerId : counters.keys()) {
+            Counters c = counters.get(sellerId);
+            if (c == null) {
+                continue; // 已过期
+            }
+            if (c.lastReadAt < readSince) {
+                counters.invalidate(sellerId);
+            } else {
+                recent.add(Map.entry(sellerId, c));
+            }
+        }
+        recent.sort(Comparator.comparing(e -> e.getValue().reconciledAt));
+        for (Map.Entry<Long, Counters> e : recent.subList(0, Math.min(reconcileBatch, recent.size()))) {
+            Long sellerId = e.getKey();
+            try {
+                Counters loaded = load(sellerId);
+                loaded.lastReadAt = e.getValue().lastReadAt;
+                counters.put(sellerId, loaded);
+            } catch (RuntimeException ex) {
+                log.warn("卖家统计校准失败 sellerId={}", sellerId, ex);
+            }
+        }
+    }
+
+    private Long sellerOf(Long itemId) {
+        return itemService.findById(itemId).map(ItemVO::getOwnerId).orElse(null);
+    }
+
+    private Counters load(Long sellerId) {
+        SellerStatsVO items = sellerStatsMapper.countItems(sellerId);
+        SellerStatsVO orders = sellerStatsMapper.countOrders(sellerId);
+        Counters c = new Counters();
+        c.items[0] = items.getPendingItems();
+        c.items[1] = items.getOnSaleItems();
+        c.items[2] = items.getSoldItems();
+        c.items[3] = items.getOffSaleItems();
+        c.items[4] = items.getRejectedItems();
+        c.orders[ORDER_OPEN] = orders.getOpenOrders();
+        c.orders[ORDER_FINISHED] = orders.getFinishedOrders();
+        c.orders[ORDER_CANCELLED] = orders.getCancelledOrders();
+        c.revenue = orders.getRevenue() != null ? orders.getRevenue() : BigDecimal.ZERO;
+        c.favoritesReceived = sellerStatsMapper.countFavoritesReceived(sellerId);
+        c.reconciledAt = LocalDateTime.now();
+        return c;
+    }
+
+    // 单个卖家的计数，读写都在自身锁内
+    private static class Counters {
+
+        final long[] items = new long[5];     // 下标为商品状态 0..4
+        final long[] orders = new long[3];    // 下标为订单状态 0..2
+        BigDecimal revenue = BigDecimal.ZERO;
+        long favoritesReceived;
+        LocalDateTime reconciledAt;
+        volatile long lastReadAt;            // 最近一次被查询的时间，决定是否参与校准
+
+        synchronized void moveItem(Integer from, Integer to) {
+            if (from != null && from >= 0 && from < items.length) {
+                items[from]--;
+            }
+            if (to != null && to >= 0 && to < items.length) {
+                items[to]++;
+            }
+        }
+
+        synchronized void moveOrder(Integer from, int to, BigDecimal price) {
+            if (from != null) {
+                orders[from]--;
+            }
+            orders[to]++;
+            if (to == ORDER_FINISHED && price != null) {
+                revenue = revenue.add(price);
+            }
+        }
+
+        synchronized void addFavorites(int delta) {
+            favoritesReceived += delta;
+        }
+
+        synchronized SellerStatsVO toVO(Long sellerId) {
+            SellerStatsVO vo = new SellerStatsVO();
+            vo.setSellerId(sellerId);
+            vo.setPendingItems(items[0]);
+            vo.setOnSaleItems(items[1]);
+            vo.setSoldItems(items[2]);
+            vo.setOffSaleItems(items[3]);
+            vo.setRejectedItems(items[4]);
+            vo.setOpenOrders(orders[ORDER_OPEN]);
+            vo.setFinishedOrders(orders[ORDER_FINISHED]);
+            vo.setCancelledOrders(orders[ORDER_CANCELLED]);
+            vo.setRevenue(revenue);
+            vo.setFavoritesReceived(favoritesReceived);
+            vo.setReconciledAt(reconciledAt);
+            return vo;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.dao.FavoriteMapper;
+import com.xianyu.entity.Favorite;
+import com.xianyu.util.LongIntMap;
+import com.xianyu.util.LongObjectMap;
+import com.xianyu.vo.ItemVO;
+import jakarta.annotation.PreDestroy;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 商品详情页的"相似商品"。后台任务定期离线计算每件在售商品的近邻列表：
+ * 被同一批用户收藏的商品（共同收藏，按余弦相似度）加上同分类中价格接近的商品，
+ * 按商品分片交给 fork/join 线程池并行打分。结果放在以 long 为键的只读哈希表里整体替换，
+ * 详情页渲染时只做一次哈希查找和快照二分查找，不查库。
+ * 定时任务只负责把计算提交给专用线程，不占用共享的调度线程；上一轮还没算完时跳过本轮。
+ */
+@Component
+public class SimilarItemsIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarItemsIndex.class);
+
+    // 共同收藏的权重高于分类 + 价格，后者主要用于没有收藏数据的新商品
+    private static final double WEIGHT_CO_FAVORITE = 1.0;
+    private static final double WEIGHT_CATEGORY = 0.5;
+
+    // 每个分片至少这么多件商品，避免任务切得太碎
+    private static final int MIN_SLICE = 64;
+
+    private final FavoriteMapper favoriteMapper;
+    private final OnSaleFeed onSaleFeed;
+    private final TransactionTemplate readOnlyTx;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "similar-items-rebuilder");
+        t.setDaemon(true);
+        return t;
+    });
+    private final int neighbors;
+    private final int maxFavoritesPerUser;
+
+    private volatile LongObjectMap<long[]> similar = new LongObjectMap<>(0);
+
+    public SimilarItemsIndex(FavoriteMapper favoriteMapper, OnSaleFeed onSaleFeed,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${xianyu.similar.neighbors:12}") int neighbors,
+                             @Value("${xianyu.similar.max-favorites-per-user:200}") int maxFavoritesPerUser,
+                             @Value("${xianyu.similar.parallelism:0}") int parallelism) {
+        this.favoriteMapper = favoriteMapper;
+        this.onSaleFeed = onSaleFeed;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.neighbors = neighbors;
+        this.maxFavoritesPerUser = maxFavoritesPerUser;
+    }
+
+    // 按相似度从高到低返回当前仍在售的相似商品
+    public List<ItemVO> similarTo(long itemId, int limit) {
+        long[] ids = similar.get(itemId);
+        if (ids == null) {
+            return List.of();
+        }
+        List<ItemVO> items = new ArrayList<>(Math.min(limit, ids.length));
+        for (int i = 0; i < ids.length && items.size() < limit; i++) {
+            ItemVO item = onSaleFeed.find(ids[i]);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Scheduled(initialDelayString = "${xianyu.similar.initial-delay-ms:30000}",
+            fixedDelayString = "${xianyu.similar.rebuild-ms:600000}")
+    public void scheduleRebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    void rebuild() {
+        OnSaleFeed.Snapshot snapshot = onSaleFeed.current();
+        if (snapshot.version() == 0) {
+            return; // 在售快照还没建好，下一轮再算
+        }
+        long start = System.nanoTime();
+        try {
+            Catalog catalog = new Catalog(snapshot.items());
+            FavoriteGraph graph = readOnlyTx.execute(status -> loadFavorites(catalog));
+            long[][] result = new long[catalog.size()][];
+            int slice = Math.max(MIN_SLICE, catalog.size() / (pool.getParallelism() * 4));
+            pool.invoke(new ScoreTask(catalog, graph, result, 0, catalog.size(), slice));
+
+            LongObjectMap<long[]> built = new LongObjectMap<>(catalog.size());
+            for (int i = 0; i < result.length; i++) {
+                if (result[i].length > 0) {
+                    built.put(catalog.ids[i], result[i]);
+                }
+            }
+            similar = built;
+            log.info("相似商品计算完成：{} 件在售商品，{} 个收藏用户，耗时 {} ms",
+                    catalog.size(), graph.userItems.length, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("相似商品计算失败，继续使用上一版结果", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    // 流式读取收藏，只保留在售商品，每个用户最多取最近的 maxFavoritesPerUser 条
+    private FavoriteGraph loadFavorites(Catalog catalog) {
+        List<int[]> userItems = new ArrayList<>();
+        int[] itemUserCounts = new int[catalog.size()];
+        int[] buffer = new int[maxFavoritesPerUser];
+        int count = 0;
+        Long currentUser = null;
+        try (Cursor<Favorite> cursor = favoriteMapper.scanAll()) {
+            for (Favorite favorite : cursor) {
+                if (!favorite.getUserId().equals(currentUser)) {
+                    addUser(userItems, itemUserCounts, buffer, count);
+                    currentUser = favorite.getUserId();
+                    count = 0;
+                }
+                int index = catalog.indexOf(favorite.getItemId());
+                if (index >= 0 && count < buffer.length) {
+                    buffer[count++] = index;
+                }
+            }
+            addUser(userItems, itemUserCounts, buffer, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // 倒排：每件商品被哪些用户收藏
+        int[][] itemUsers = new int[catalog.size()][];
+        for (int i = 0; i < itemUsers.length; i++) {
+            itemUsers[i] = new int[itemUserCounts[i]];
+        }
+        int[] filled = new int[catalog.size()];
+        for (int u = 0; u < userItems.size(); u++) {
+            for (int item : userItems.get(u)) {
+                itemUsers[item][filled[item]++] = u;
+            }
+        }
+        return new FavoriteGraph(userItems.toArray(new int[0][]), itemUsers);
+    }
+
+    // 只收藏了一件在售商品的用户贡献不了共同收藏，直接跳过
+    private static void addUser(List<int[]> userItems, int[] itemUserCounts, int[] buffer, int count) {
+        if (count < 2) {
+            return;
+        }
+        int[] items = Arrays.copyOf(buffer, count);
+        userItems.add(items);
+        for (int item : items) {
+            itemUserCounts[item]++;
+        }
+    }
+
+    /**
+     * 在售商品的紧凑表示：下标代替 id，分类编成整数，每个分类内按价格排好序便于找价格相近的商品。
+     */
+    private static final class Catalog {
+        final long[] ids;
+        final int[] categories;
+        final double[] prices;
+        final int[][] byCategoryPrice;     // 分类 -> 按价格升序的商品下标
+        final int[] positionInCategory;    // 商品在所属分类列表中的位置
+        private final LongIntMap indexById;
+
+        Catalog(List<ItemVO> items) {
+            int n = items.size();
+            ids = new long[n];
+            categories = new int[n];
+            prices = new double[n];
+            indexById = new LongIntMap(n);
+            Map<String, Integer> categoryCodes = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                ItemVO item = items.get(i);
+                ids[i] = item.getId();
+                categories[i] = item.getCategory() == null || item.getCategory().isBlank()
+                        ? -1 : categoryCodes.computeIfAbsent(item.getCategory(), k -> categoryCodes.size());
+                BigDecimal price = item.getPrice();
+                prices[i] = price == null ? 0 : price.doubleValue();
+                indexById.put(ids[i], i);
+            }
+
+            List<List<Integer>> groups = new ArrayList<>();
+            for (int c = 0; c < categoryCodes.size(); c++) {
+                groups.add(new ArrayList<>());
+            }
+            for (int i = 0; i < n; i++) {
+                if (categories[i] >= 0) {
+                    groups.get(categories[i]).add(i);
+                }
+            }
+            byCategoryPrice = new int[groups.size()][];
+            positionInCategory = new int[n];
+            for (int c = 0; c < groups.size(); c++) {
+                int[] sorted = groups.get(c).stream()
+                        .sorted((a, b) -> Double.compare(prices[a], prices[b]))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                byCategoryPrice[c] = sorted;
+                for (int p = 0; p < sorted.length; p++) {
+                    positionInCategory[sorted[p]] = p;
+                }
+            }
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int indexOf(long id) {
+            return indexById.get(id, -1);
+        }
+    }
+
+    private record FavoriteGraph(int[][] userItems, int[][] itemUsers) {
+    }
+
+    /**
+     * 给 [from, to) 范围内的商品打分；超过分片大小时一分为二。
+     * 每个叶子任务复用一组与商品数等长的计数数组，只清理本次触碰过的位置。
+     */
+    private final class ScoreTask extends RecursiveAction {
+        private final Catalog catalog;
+        private final FavoriteGraph graph;
+        private final long[][] result;
+        private final int from;
+        private final int to;
+        private final int slice;
+
+        ScoreTask(Catalog catalog, FavoriteGraph graph, long[][] result, int from, int to, int slice) {
+            this.catalog = catalog;
+            this.graph = graph;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.slice = slice;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > slice) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ScoreTask(catalog, graph, result, from, mid, slice),
+                        new ScoreTask(catalog, graph, result, mid, to, slice));
+                return;
+            }
+            int[] coCounts = new int[catalog.size()];
+            double[] scores = new double[catalog.size()];
+            int[] touched = new int[catalog.size()];
+            for (int i = from; i < to; i++) {
+                result[i] = score(i, coCounts, scores, touched);
+            }
+        }
+
+        private long[] score(int item, int[] coCounts, double[] scores, int[] touched) {
+            int touchedCount = 0;
+
+            // 共同收藏次数
+            int[] users = graph.itemUsers()[item];
+            for (int user : users) {
+                for (int other : graph.userItems()[user]) {
+                    if (other != item && coCounts[other]++ == 0) {
+                        touched[touchedCount++] = other;
+                    }
+                }
+            }
+            for (int t = 0; t < touchedCount; t++) {
+                int other = touched[t];
+                double cosine = coCounts[other] / Math.sqrt((double) users.length * graph.itemUsers()[other].length);
+                scores[other] = WEIGHT_CO_FAVORITE * cosine + categoryScore(item, other);
+            }
+
+            // 同分类中价格最接近的若干件，从当前商品在分类列表中的位置向两侧展开
+            int category = catalog.categories[item];
+            if (category >= 0) {
+                int[] group = catalog.byCategoryPrice[category];
+                int position = catalog.positionInCategory[item];
+                int left = position - 1;
+                int right = position + 1;
+                for (int taken = 0; taken < neighbors && (left >= 0 || right < group.length); taken++) {
+                    int other;
+                    if (right >= group.length || (left >= 0 && priceGap(item, group[left]) <= priceGap(item, group[right]))) {
+                        other = group[left--];
+                    } else {
+                        other = group[right++];
+                    }
+                    if (coCounts[other] == 0 && scores[other] == 0) {
+                        touched[touchedCount++] = other;
+                        scores[other] = categoryScore(item, other);
+                    }
+                }
+            }
+
+            int[] candidates = Arrays.copyOf(touched, touchedCount);
+            long[] top = topByScore(candidates, scores);
+            for (int other : candidates) {
+                coCounts[other] = 0;
+                scores[other] = 0;
+            }
+            return top;
+        }
+
+        private long[] topByScore(int[] candidates, double[] scores) {
+            Integer[] order = new Integer[candidates.length];
+            for (int c = 0; c < candidates.length; c++) {
+                order[c] = candidates[c];
+            }
+            Arrays.sort(order, (a, b) -> {
+                int byScore = Double.compare(scores[b], scores[a]);
+                return byScore != 0 ? byScore : Long.compare(catalog.ids[b], catalog.ids[a]);
+            });
+            int size = Math.min(neighbors, order.length);
+            long[] top = new long[size];
+            for (int k = 0; k < size; k++) {
+                top[k] = catalog.ids[order[k]];
+            }
+            return top;
+        }
+
+        // 同分类才有分，价格越接近分越高（按价格比的对数衡量，1 元和 2 元的差距与 100 元和 200 元相同）
+        private double categoryScore(int item, int other) {
+            if (catalog.categories[item] < 0 || catalog.categories[item] != catalog.categories[other]) {
+                return 0;
+            }
+            return WEIGHT_CATEGORY / (1 + priceGap(item, other));
+        }
+
+        private double priceGap(int item, int other) {
+            return Math.abs(Math.log((catalog.prices[other] + 1) / (catalog.prices[item] + 1)));
+        }
+    }
+}
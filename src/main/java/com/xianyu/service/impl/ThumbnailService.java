@@ -0,0 +1,130 @@
+package com.xianyu.service.impl;
+
+import com.xianyu.util.ImageUrls;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 商品图片缩略图。首次请求时从 static 目录读取原图、缩放后写入磁盘缓存目录，之后直接读文件；
+ * 文件名带原图修改时间，原图替换后自动生成新的缩略图。ETag 为缩略图内容的摘要。
+ */
+@Component
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    // 只允许固定的几种宽度，避免任意参数把磁盘写满
+    public static final Set<Integer> WIDTHS = Set.of(ImageUrls.LIST_THUMBNAIL_WIDTH, 480);
+
+    public record Thumbnail(Path path, String etag, String contentType) {
+    }
+
+    private final Path cacheDir;
+    private final ConcurrentHashMap<String, Thumbnail> thumbnails = new ConcurrentHashMap<>();
+
+    public ThumbnailService(@Value("${xianyu.image.thumbnail-dir:./data/thumbnails}") String cacheDir) {
+        this.cacheDir = Paths.get(cacheDir).toAbsolutePath();
+    }
+
+    public Optional<Thumbnail> get(String image, int width) {
+        String name = ImageUrls.localName(image);
+        if (name == null || !WIDTHS.contains(width)) {
+            return Optional.empty();
+        }
+        ClassPathResource source = new ClassPathResource("static/" + name);
+        if (!source.exists()) {
+            return Optional.empty();
+        }
+        try {
+            String key = width + "/" + name + "@" + source.lastModified();
+            Thumbnail cached = thumbnails.get(key);
+            if (cached != null && Files.exists(cached.path())) {
+                return Optional.of(cached);
+            }
+            Thumbnail thumbnail = load(source, name, width, key);
+            if (thumbnail != null) {
+                thumbnails.put(key, thumbnail);
+            }
+            return Optional.ofNullable(thumbnail);
+        } catch (IOException e) {
+            log.warn("生成缩略图失败 {} w={}", name, width, e);
+            return Optional.empty();
+        }
+    }
+
+    private Thumbnail load(ClassPathResource source, String name, int width, String key) throws IOException {
+        boolean png = !name.toLowerCase().matches(".*\\.(jpg|jpeg)");
+        String format = png ? "png" : "jpg";
+        String baseName = name.substring(0, name.lastIndexOf('.'));
+        Path target = cacheDir.resolve(String.valueOf(width))
+                .resolve(baseName + "-" + Long.toHexString(source.lastModified()) + "." + format);
+
+        if (!Files.exists(target)) {
+            BufferedImage original;
+            try (InputStream in = source.getInputStream()) {
+                original = ImageIO.read(in);
+            }
+            if (original == null) {
+                return null; // 不是可识别的图片
+            }
+            Files.createDirectories(target.getParent());
+            // 先写临时文件再原子替换，并发请求同一张图时不会读到半个文件
+            Path tmp = Files.createTempFile(target.getParent(), baseName, ".tmp");
+            try {
+                if (!ImageIO.write(resize(original, width, png), format, tmp.toFile())) {
+                    return null;
+                }
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            log.debug("生成缩略图 {}", key);
+        }
+        return new Thumbnail(target, etag(target), png ? "image/png" : "image/jpeg");
+    }
+
+    private static BufferedImage resize(BufferedImage original, int width, boolean keepAlpha) {
+        int targetWidth = Math.min(width, original.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) original.getHeight() * targetWidth / original.getWidth()));
+        BufferedImage resized = new BufferedImage(targetWidth, targetHeight,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(original, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    private static String etag(Path file) throws IOException {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.xianyu.dto.RegisterDTO;
 import com.xianyu.dao.UserMapper;
 import com.xianyu.entity.User;
 import com.xianyu.service.UserService;
+import com.xianyu.util.LocalCache;
 import com.xianyu.vo.UserVO;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -16,10 +17,15 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final LocalCache<String, UserVO> byUsername;
+    private final LocalCache<Long, UserVO> byId;
 
-    public UserServiceImpl(UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserMapper userMapper, PasswordEncoder passwordEncoder,
+                           LocalCache<String, UserVO> byUsername, LocalCache<Long, UserVO> byId) {
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.byUsername = byUsername;
+        this.byId = byId;
     }
 
     @Override
@@ -50,7 +56,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Optional<UserVO> findById(Long id) {
-        return userMapper.findById(id).map(this::toVO);
+        return Optional.ofNullable(byId.get(id, key -> userMapper.findById(key).map(this::toVO).orElse(null)));
     }
 
     @Override
@@ -60,7 +66,17 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Optional<UserVO> findByUsername(String username) {
-        return userMapper.findByUsername(username).map(this::toVO);
+        return Optional.ofNullable(byUsername.get(username,
+                key -> userMapper.findByUsername(key).map(this::toVO).orElse(null)));
+    }
+
+    @Override
+    public boolean updateStatus(Long id, Integer status) {
+        int updated = userMapper.updateStatus(id, status);
+        // 立即清掉缓存，避免禁用后仍以旧状态通过认证
+        byId.invalidate(id);
+        userMapper.findById(id).ifPresent(user -> byUsername.invalidate(user.getUsername()));
+        return updated > 0;
     }
 
     private UserVO toVO(User user) {
@@ -0,0 +1,28 @@
+package com.xianyu.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * 条件 GET：按 ETag（和可选的最后修改时间）判断客户端缓存是否仍然有效。
+ * 命中时响应已被置为 304，控制器直接返回 null 即可，不再做 VO 转换和序列化。
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    public static boolean notModified(ServletWebRequest request, String version, Long lastModified) {
+        if (request == null) {
+            return false; // 没有请求上下文（如直接调用控制器方法）时不做协商
+        }
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // 允许客户端缓存但每次都要协商；显式设置后 Spring Security 不再写入 no-store
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        String etag = "\"" + version + "\"";
+        return lastModified == null ? request.checkNotModified(etag) : request.checkNotModified(etag, lastModified);
+    }
+}
@@ -0,0 +1,20 @@
+package com.xianyu.util;
+
+import java.util.List;
+
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;   // 没有下一页时为 null
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasNext() { return nextCursor != null; }
+}
@@ -0,0 +1,40 @@
+package com.xianyu.util;
+
+import java.util.Locale;
+
+/**
+ * 管理后台导出格式：每行一个 JSON 对象（NDJSON）或带表头的 CSV。
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson"),
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // 为空时默认 NDJSON
+    public static ExportFormat of(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(value.trim().toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("不支持的导出格式：" + value);
+    }
+}
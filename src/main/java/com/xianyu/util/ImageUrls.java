@@ -0,0 +1,62 @@
+package com.xianyu.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 商品图片地址工具。数据库中 image_urls 为逗号分隔的字符串，元素可能是 static 目录下的文件名、
+ * 以 / 开头的站内路径或外部 URL；只有 static 下的本地图片能生成缩略图。
+ */
+public final class ImageUrls {
+
+    public static final int LIST_THUMBNAIL_WIDTH = 240;
+
+    private static final Pattern LOCAL_IMAGE = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*\\.(?i)(jpg|jpeg|png|gif)");
+
+    private ImageUrls() {
+    }
+
+    public static List<String> parse(String imageUrls) {
+        if (imageUrls == null || imageUrls.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(imageUrls.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    // 原图地址：外部 URL 原样返回，本地文件补成站内绝对路径
+    public static String fullUrl(String image) {
+        if (image == null || image.isBlank()) {
+            return null;
+        }
+        image = image.trim();
+        if (image.startsWith("/") || image.contains(":")) {
+            return image;
+        }
+        return "/" + image;
+    }
+
+    // 缩略图地址；无法生成缩略图的图片退回原图地址
+    public static String thumbnailUrl(String image, int width) {
+        String name = localName(image);
+        return name == null ? fullUrl(image) : "/thumbs/" + width + "/" + name;
+    }
+
+    public static String firstThumbnailUrl(String imageUrls) {
+        List<String> images = parse(imageUrls);
+        return images.isEmpty() ? null : thumbnailUrl(images.get(0), LIST_THUMBNAIL_WIDTH);
+    }
+
+    // static 目录下的图片文件名；不是本地图片或文件名不合法时返回 null
+    public static String localName(String image) {
+        if (image == null) {
+            return null;
+        }
+        String name = image.trim();
+        name = name.startsWith("/") ? name.substring(1) : name;
+        return LOCAL_IMAGE.matcher(name).matches() ? name : null;
+    }
+}
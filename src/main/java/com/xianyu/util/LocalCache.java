@@ -0,0 +1,181 @@
+package com.xianyu.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 进程内缓存：容量上限 + 写入后过期（TTL），读操作无锁。
+ * 超出容量时按写入顺序淘汰最早的条目。
+ * 带 loader 的读取在加载前先放入占位条目，加载期间的 invalidate 会移除占位，加载结果随之作废，不会把旧值写回缓存。
+ */
+public class LocalCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node<K, V>> writeOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LocalCache(String name, int maxSize, long ttl, TimeUnit unit) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("缓存容量必须大于 0");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    public V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null || entry.isLoading()) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            map.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    // 未命中时调用 loader 加载；loader 返回 null 时不缓存
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        // 只有放入占位的线程写回结果；占位在加载期间被 invalidate 移除或被 put 覆盖时，结果只返回不缓存
+        Entry<V> placeholder = new Entry<>(null, System.nanoTime() + ttlNanos);
+        boolean owner = map.putIfAbsent(key, placeholder) == null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            if (owner && value == null) {
+                map.remove(key, placeholder);
+            }
+        }
+        if (owner && value != null) {
+            Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+            if (map.replace(key, placeholder, entry)) {
+                writeOrder.offer(new Node<>(key, entry));
+                queued.incrementAndGet();
+                evictIfNeeded();
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        map.put(key, entry);
+        writeOrder.offer(new Node<>(key, entry));
+        queued.incrementAndGet();
+        evictIfNeeded();
+    }
+
+    // 已有未过期的值时返回该值且不覆盖，否则写入并返回 null
+    public V putIfAbsent(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        while (true) {
+            Entry<V> existing = map.putIfAbsent(key, entry);
+            if (existing == null || ((existing.isLoading() || existing.isExpired(System.nanoTime()))
+                    && map.replace(key, existing, entry))) {
+                writeOrder.offer(new Node<>(key, entry));
+                queued.incrementAndGet();
+                evictIfNeeded();
+                return null;
+            }
+            if (!existing.isLoading() && !existing.isExpired(System.nanoTime())) {
+                return existing.value;
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        if (key != null) {
+            map.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    // 当前所有键的快照，可能包含已过期但尚未清理的条目
+    public Set<K> keys() {
+        return Set.copyOf(map.keySet());
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("size", map.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    // 队列中可能残留已被覆盖或删除的旧节点，remove(key, entry) 只会移除仍然有效的那一个
+    private void evictIfNeeded() {
+        while (map.size() > maxSize || queued.get() > maxSize * 2) {
+            Node<K, V> oldest = writeOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (map.remove(oldest.key, oldest.entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expireAt;
+
+        Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expireAt >= 0;
+        }
+
+        // 加载中的占位条目，没有值
+        boolean isLoading() {
+            return value == null;
+        }
+    }
+
+    private record Node<K, V>(K key, Entry<V> entry) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.xianyu.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 键集分页游标：对外是不透明字符串，内部为上一页最后一条记录的 id。
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        if (lastId == null) {
+            return null;
+        }
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    // 空游标表示从第一页开始，返回 null
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("分页游标无效");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("分页游标无效");
+        }
+    }
+
+    public static int normalizeSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // 按页码翻页的结果（搜索、分面筛选）：页码从 1 开始，空值或小于 1 视为第一页
+    public static int normalizePage(Integer page) {
+        return page == null || page < 1 ? 1 : page;
+    }
+
+    // 第 page 页在 total 条结果中的起始位置；按 long 计算，页码很大时不会溢出成负数，超出时返回 total
+    public static int offset(int page, int size, int total) {
+        return (int) Math.min((long) (page - 1) * size, total);
+    }
+}
@@ -2,7 +2,8 @@ package com.xianyu.util;
 
 public enum ResponseCode {
     SUCCESS(200, "登录成功！"),
-    FAILURE(500, "登陆失败！");
+    FAILURE(500, "登陆失败！"),
+    CONFLICT(409, "数据已被修改");
 
     private final int code;
     private final String message;
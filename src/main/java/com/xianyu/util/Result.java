@@ -1,11 +1,17 @@
 package com.xianyu.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
 public class Result<T> {
 
     private int code;
     private String message;
     private T data;
     private boolean success;  // 新增
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;  // 分页接口的下一页游标
     private Result(int code, String message, T data, boolean success) {
         this.code = code;
         this.message = message;
@@ -16,9 +22,17 @@ public class Result<T> {
     public static <T> Result<T> success(T data) {
         return new Result<>(ResponseCode.SUCCESS.getCode(), ResponseCode.SUCCESS.getMessage(), data, true);
     }
+    public static <T> Result<List<T>> page(CursorPage<T> page) {
+        Result<List<T>> result = new Result<>(ResponseCode.SUCCESS.getCode(), ResponseCode.SUCCESS.getMessage(), page.getItems(), true);
+        result.nextCursor = page.getNextCursor();
+        return result;
+    }
     public static <T> Result<T> failure(String message) {
         return new Result<>(ResponseCode.FAILURE.getCode(), message, null, false);
     }
+    public static <T> Result<T> failure(ResponseCode code, String message) {
+        return new Result<>(code.getCode(), message, null, false);
+    }
 
     public int getCode() { return code; }
     public void setCode(int code) { this.code = code; }
@@ -28,4 +42,6 @@ public class Result<T> {
     public void setData(T data) { this.data = data; }
     public boolean isSuccess() { return success; }
     public void setSuccess(boolean success) { this.success = success; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
 }
\ No newline at end of file
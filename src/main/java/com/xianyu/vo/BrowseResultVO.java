@@ -0,0 +1,54 @@
+package com.xianyu.vo;
+
+import java.util.List;
+import java.util.Map;
+
+public class BrowseResultVO {
+
+    private int total;
+    private int page;
+    private int size;
+    private List<ItemVO> items;
+    // 维度 -> 取值 -> 数量，每个维度的计数不受该维度自身筛选条件的影响
+    private Map<String, Map<String, Integer>> facets;
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public List<ItemVO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemVO> items) {
+        this.items = items;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Integer>> facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,90 @@
+package com.xianyu.vo;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// 收藏列表的扁平投影，直接由 FavoriteMapper.listByUserPage 映射
+public class FavoriteItemVO {
+
+    private Long favoriteId;
+    private Long itemId;
+    private String name;
+    private BigDecimal price;
+    private String image;       // imageUrls 中的第一张
+    private String thumbnailUrl;
+    private Integer status;
+    private String sellerName;
+    private LocalDateTime createTime;
+
+    public Long getFavoriteId() {
+        return favoriteId;
+    }
+
+    public void setFavoriteId(Long favoriteId) {
+        this.favoriteId = favoriteId;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getSellerName() {
+        return sellerName;
+    }
+
+    public void setSellerName(String sellerName) {
+        this.sellerName = sellerName;
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(LocalDateTime createTime) {
+        this.createTime = createTime;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+}
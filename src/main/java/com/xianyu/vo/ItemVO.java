@@ -1,6 +1,9 @@
 package com.xianyu.vo;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
+import java.util.List;
 
 public class ItemVO {
 
@@ -15,7 +18,12 @@ public class ItemVO {
     private Long ownerId;
     private String contactWay;
     private String location;
-    private String imageUrls;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String imageUrls;       // 原图，仅详情返回
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> images;    // 解析后的原图地址，仅详情返回
+    private String thumbnailUrl;    // 第一张图的缩略图，列表使用
+    private Integer version;        // 编辑时原样提交，用于检测并发修改
 
     public Long getId() {
         return id;
@@ -112,5 +120,28 @@ public class ItemVO {
     public void setImageUrls(String imageUrls) {
         this.imageUrls = imageUrls;
     }
-}
 
+    public List<String> getImages() {
+        return images;
+    }
+
+    public void setImages(List<String> images) {
+        this.images = images;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,52 @@
+package com.xianyu.vo;
+
+import java.time.LocalDateTime;
+
+public class OrderEventVO {
+
+    private Integer fromStatus;
+    private Integer toStatus;
+    private String reason;
+    private Long operatorId;
+    private LocalDateTime createTime;
+
+    public Integer getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(Integer fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public Integer getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(Integer toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public Long getOperatorId() {
+        return operatorId;
+    }
+
+    public void setOperatorId(Long operatorId) {
+        this.operatorId = operatorId;
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(LocalDateTime createTime) {
+        this.createTime = createTime;
+    }
+}
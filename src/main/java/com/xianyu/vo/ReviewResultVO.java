@@ -0,0 +1,26 @@
+package com.xianyu.vo;
+
+public class ReviewResultVO {
+
+    private Long id;
+    private boolean success;
+    private String message;
+
+    public ReviewResultVO(Long id, boolean success, String message) {
+        this.id = id;
+        this.success = success;
+        this.message = message;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
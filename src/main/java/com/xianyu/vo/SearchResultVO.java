@@ -0,0 +1,43 @@
+package com.xianyu.vo;
+
+import java.util.List;
+
+public class SearchResultVO {
+
+    private int total;
+    private int page;
+    private int size;
+    private List<ItemVO> items;
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public List<ItemVO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemVO> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,117 @@
+package com.xianyu.vo;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// 卖家统计：商品按状态计数、订单计数、成交额、被收藏次数
+public class SellerStatsVO {
+
+    private Long sellerId;
+    private long pendingItems;
+    private long onSaleItems;
+    private long soldItems;
+    private long offSaleItems;
+    private long rejectedItems;
+    private long openOrders;
+    private long finishedOrders;
+    private long cancelledOrders;
+    private BigDecimal revenue = BigDecimal.ZERO;   // 已完成订单的成交价之和
+    private long favoritesReceived;
+    private LocalDateTime reconciledAt;             // 最近一次按 SQL 汇总校准的时间
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public long getPendingItems() {
+        return pendingItems;
+    }
+
+    public void setPendingItems(long pendingItems) {
+        this.pendingItems = pendingItems;
+    }
+
+    public long getOnSaleItems() {
+        return onSaleItems;
+    }
+
+    public void setOnSaleItems(long onSaleItems) {
+        this.onSaleItems = onSaleItems;
+    }
+
+    public long getSoldItems() {
+        return soldItems;
+    }
+
+    public void setSoldItems(long soldItems) {
+        this.soldItems = soldItems;
+    }
+
+    public long getOffSaleItems() {
+        return offSaleItems;
+    }
+
+    public void setOffSaleItems(long offSaleItems) {
+        this.offSaleItems = offSaleItems;
+    }
+
+    public long getRejectedItems() {
+        return rejectedItems;
+    }
+
+    public void setRejectedItems(long rejectedItems) {
+        this.rejectedItems = rejectedItems;
+    }
+
+    public long getOpenOrders() {
+        return openOrders;
+    }
+
+    public void setOpenOrders(long openOrders) {
+        this.openOrders = openOrders;
+    }
+
+    public long getFinishedOrders() {
+        return finishedOrders;
+    }
+
+    public void setFinishedOrders(long finishedOrders) {
+        this.finishedOrders = finishedOrders;
+    }
+
+    public long getCancelledOrders() {
+        return cancelledOrders;
+    }
+
+    public void setCancelledOrders(long cancelledOrders) {
+        this.cancelledOrders = cancelledOrders;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getFavoritesReceived() {
+        return favoritesReceived;
+    }
+
+    public void setFavoritesReceived(long favoritesReceived) {
+        this.favoritesReceived = favoritesReceived;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -0,0 +1,2 @@
+-- 商品键集分页：WHERE status = ? AND id < ? ORDER BY id DESC LIMIT n
+ALTER TABLE item ADD INDEX idx_item_status_id (status, id);
@@ -0,0 +1,2 @@
+-- 收藏批量写入使用 INSERT IGNORE，依赖 (user_id, item_id) 唯一约束去重
+ALTER TABLE favorite ADD UNIQUE KEY uk_favorite_user_item (user_id, item_id);
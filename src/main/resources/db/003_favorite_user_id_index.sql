@@ -0,0 +1,2 @@
+-- 收藏列表按 f.id 键集分页：WHERE user_id = ? AND id < ? ORDER BY id DESC LIMIT n
+ALTER TABLE favorite ADD INDEX idx_favorite_user_id (user_id, id);
@@ -0,0 +1,3 @@
+-- 待审核队列按分类、卖家筛选后键集分页
+ALTER TABLE item ADD INDEX idx_item_status_category_id (status, category, id);
+ALTER TABLE item ADD INDEX idx_item_status_seller_id (status, seller_id, id);
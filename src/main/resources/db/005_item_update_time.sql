@@ -0,0 +1,2 @@
+-- 商品最后修改时间，用于 ETag / Last-Modified 条件请求；只改状态的语句依赖 ON UPDATE 自动刷新
+ALTER TABLE item ADD COLUMN update_time DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
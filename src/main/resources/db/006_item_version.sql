@@ -0,0 +1,2 @@
+-- 商品乐观锁版本号，编辑时 WHERE id = ? AND version = ?
+ALTER TABLE item ADD COLUMN version INT NOT NULL DEFAULT 0;
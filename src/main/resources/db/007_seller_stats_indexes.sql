@@ -0,0 +1,4 @@
+-- 卖家统计的 SQL 汇总按卖家取数，状态列放进索引避免回表
+ALTER TABLE item ADD INDEX idx_item_seller_status (seller_id, status);
+ALTER TABLE orders ADD INDEX idx_orders_seller_status (seller_id, status, item_price);
+ALTER TABLE favorite ADD INDEX idx_favorite_item_id (item_id);
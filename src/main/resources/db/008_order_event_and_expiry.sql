@@ -0,0 +1,14 @@
+-- 订单状态流转记录
+CREATE TABLE order_event (
+    id          BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    order_id    BIGINT      NOT NULL,
+    from_status INT         NULL,
+    to_status   INT         NOT NULL,
+    reason      VARCHAR(32) NOT NULL,
+    operator_id BIGINT      NULL,
+    create_time DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    KEY idx_order_event_order_id (order_id, id)
+);
+
+-- 超时未处理订单的扫描：WHERE status = 0 AND create_time < ? ORDER BY create_time
+ALTER TABLE orders ADD INDEX idx_orders_status_create_time (status, create_time);
@@ -0,0 +1,5 @@
+-- 订单列表键集分页：按状态过滤时走 (用户, status, id)，不过滤时走 (用户, id)
+ALTER TABLE orders ADD INDEX idx_orders_buyer_status_id (buyer_id, status, id);
+ALTER TABLE orders ADD INDEX idx_orders_seller_status_id (seller_id, status, id);
+ALTER TABLE orders ADD INDEX idx_orders_buyer_id (buyer_id, id);
+ALTER TABLE orders ADD INDEX idx_orders_seller_id (seller_id, id);
@@ -0,0 +1,7 @@
+-- 只读副本延迟探测：应用定期在主库写入当前时间，再从各副本读回，差值即复制延迟
+CREATE TABLE replica_heartbeat (
+    id   TINYINT NOT NULL PRIMARY KEY,
+    beat BIGINT  NOT NULL
+);
+
+INSERT INTO replica_heartbeat (id, beat) VALUES (1, 0);
@@ -0,0 +1,9 @@
+-- 商品浏览/收藏累计次数和按时间衰减的热度，由应用定期批量写入
+CREATE TABLE item_popularity (
+    item_id        BIGINT      NOT NULL PRIMARY KEY,
+    view_count     BIGINT      NOT NULL DEFAULT 0,
+    favorite_count BIGINT      NOT NULL DEFAULT 0,
+    score          DOUBLE      NOT NULL DEFAULT 0,
+    update_time    DATETIME(3) NOT NULL,
+    KEY idx_item_popularity_score (score)
+);